@@ -0,0 +1,112 @@
+package edu.upc.epsevg.prop.hex;
+
+import edu.upc.epsevg.prop.hex.players.HeuristicaID;
+import edu.upc.epsevg.prop.hex.players.HexBoard;
+import edu.upc.epsevg.prop.hex.players.HexEvaluator;
+import java.awt.Point;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Banco de pruebas de la heurística de distancia. Genera posiciones aleatorias
+ * (con semilla fija), comprueba que todas las implementaciones devuelven el
+ * mismo {@code shortestPath} y mide el tiempo de cada una.
+ *
+ * <p>Uso: {@code HeuristicaBenchmark [mida] [posicions]}</p>
+ */
+public class HeuristicaBenchmark {
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 11;
+        int count = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+        int rounds = 5;
+
+        HexBoard[] boards = randomBoards(size, count, new Random(42));
+        HexEvaluator dijkstra = new HexEvaluator(size, HexEvaluator.Algorithm.DIJKSTRA);
+        HexEvaluator bfs = new HexEvaluator(size, HexEvaluator.Algorithm.BFS_01);
+
+        // Comprobar que las tres implementaciones coinciden.
+        int mismatches = 0;
+        for (HexBoard b : boards) {
+            for (int color : new int[]{1, -1}) {
+                int ref = HeuristicaID.runDijkstra(b, color).shortestPath;
+                bfs.computeDistances(b);
+                if (ref != dijkstra.shortestPath(b, color) || ref != bfs.shortestPath(b, color)
+                        || ref != bfs.getDistance(color)) {
+                    mismatches++;
+                }
+            }
+        }
+        System.out.println("Posiciones: " + count + " (" + size + "x" + size + "), discrepancias: " + mismatches);
+
+        // Medir (la primera ronda sirve de calentamiento).
+        for (int r = 0; r < rounds; r++) {
+            long t0 = System.nanoTime();
+            long sum0 = 0;
+            for (HexBoard b : boards) {
+                sum0 += HeuristicaID.runDijkstra(b, 1).shortestPath + HeuristicaID.runDijkstra(b, -1).shortestPath;
+            }
+            long t1 = System.nanoTime();
+            long sum1 = 0;
+            for (HexBoard b : boards) {
+                sum1 += dijkstra.shortestPath(b, 1) + dijkstra.shortestPath(b, -1);
+            }
+            long t2 = System.nanoTime();
+            long sum2 = 0;
+            for (HexBoard b : boards) {
+                sum2 += bfs.shortestPath(b, 1) + bfs.shortestPath(b, -1);
+            }
+            long t3 = System.nanoTime();
+            long sum3 = 0;
+            for (HexBoard b : boards) {
+                bfs.computeDistances(b);
+                sum3 += bfs.getDistance(1) + bfs.getDistance(-1);
+            }
+            long t4 = System.nanoTime();
+
+            System.out.println("Ronda " + r
+                    + ": runDijkstra " + perCall(t1 - t0, count) + " us/llamada"
+                    + ", DIJKSTRA " + perCall(t2 - t1, count) + " us/llamada"
+                    + ", BFS_01 " + perCall(t3 - t2, count) + " us/llamada"
+                    + ", BFS_01 dos colores " + perCall(t4 - t3, count) + " us/llamada"
+                    + (sum0 == sum1 && sum1 == sum2 && sum2 == sum3 ? "" : " (sumas distintas!)"));
+        }
+    }
+
+    /**
+     * Genera posiciones no terminales jugando movimientos aleatorios.
+     *
+     * @param size Tamaño del tablero.
+     * @param count Número de posiciones.
+     * @param rnd Generador aleatorio.
+     * @return Tableros generados.
+     */
+    private static HexBoard[] randomBoards(int size, int count, Random rnd) {
+        HexBoard[] boards = new HexBoard[count];
+        for (int i = 0; i < count; i++) {
+            HexGameStatus gs = new HexGameStatus(size);
+            int stones = rnd.nextInt(size * size / 2);
+            for (int k = 0; k < stones; k++) {
+                List<MoveNode> moves = gs.getMoves();
+                Point p = moves.get(rnd.nextInt(moves.size())).getPoint();
+                HexGameStatus next = new HexGameStatus(gs);
+                next.placeStone(p);
+                if (next.isGameOver()) break;
+                gs = next;
+            }
+            boards[i] = new HexBoard(gs);
+        }
+        return boards;
+    }
+
+    /**
+     * Convierte un tiempo total en microsegundos por llamada (dos colores por posición).
+     *
+     * @param nanos Tiempo total en nanosegundos.
+     * @param count Número de posiciones.
+     * @return Microsegundos por llamada.
+     */
+    private static String perCall(long nanos, int count) {
+        return String.format("%.2f", nanos / 1000.0 / (2.0 * count));
+    }
+}
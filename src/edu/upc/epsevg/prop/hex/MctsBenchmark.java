@@ -0,0 +1,184 @@
+package edu.upc.epsevg.prop.hex;
+
+import edu.upc.epsevg.prop.hex.players.PlayerMCTS;
+import edu.upc.epsevg.prop.hex.players.PlayoutKernel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Banco de pruebas de {@link PlayerMCTS}. Primero mide cuántas partidas
+ * aleatorias por segundo juega {@link PlayoutKernel} solo, sin árbol, desde
+ * posiciones de una partida aleatoria. Después enfrenta el jugador con RAVE al
+ * jugador con UCT puro, primero con un número fijo de partidas aleatorias por
+ * movimiento (compara la calidad de la búsqueda) y después con un tiempo fijo
+ * por movimiento (compara también el coste de cada iteración). Los colores se
+ * alternan en cada partida.
+ *
+ * <p>Después mide la búsqueda en paralelo con 1, 2, 4... hasta {@code fils}
+ * hilos, dando {@code ms} milisegundos a cada posición de una partida
+ * aleatoria, y muestra las partidas aleatorias por segundo.</p>
+ *
+ * <p>Uso: {@code MctsBenchmark [mida] [partides] [playouts] [ms] [fils]}</p>
+ */
+public class MctsBenchmark {
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 11;
+        int games = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int playouts = (args.length > 2) ? Integer.parseInt(args[2]) : 10000;
+        int millis = (args.length > 3) ? Integer.parseInt(args[3]) : 500;
+        int maxThreads = (args.length > 4) ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        HexGameStatus[] positions = randomGame(size, new Random(42));
+        System.out.println("Tablero " + size + "x" + size + ", " + games + " partidas por prueba");
+        kernel(size, positions);
+
+        match("RAVE contra UCT, " + playouts + " partidas aleatorias", size, games, playouts, 0);
+        match("RAVE contra UCT, " + millis + " ms", size, games, Long.MAX_VALUE, millis);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            PlayerMCTS player = new PlayerMCTS();
+            player.setThreads(threads);
+            long total = 0;
+            long elapsed = 0;
+            for (HexGameStatus gs : positions) {
+                move(player, gs, millis);
+                total += player.getLastStats().playouts;
+                elapsed += player.getLastStats().timeMillis;
+            }
+            System.out.println(threads + " hilos: " + (total * 1000 / Math.max(1, elapsed)) + " partidas aleatorias/s");
+        }
+    }
+
+    /**
+     * Juega una partida aleatoria (con semilla fija) y devuelve una de cada
+     * tres posiciones no terminales.
+     *
+     * @param size Tamaño del tablero.
+     * @param rnd Generador aleatorio.
+     * @return Posiciones de la partida.
+     */
+    private static HexGameStatus[] randomGame(int size, Random rnd) {
+        List<HexGameStatus> positions = new ArrayList<>();
+        HexGameStatus gs = new HexGameStatus(size);
+        for (int k = 0; !gs.isGameOver(); k++) {
+            if (k % 3 == 0) {
+                positions.add(gs);
+            }
+            List<MoveNode> moves = gs.getMoves();
+            HexGameStatus next = new HexGameStatus(gs);
+            next.placeStone(moves.get(rnd.nextInt(moves.size())).getPoint());
+            gs = next;
+        }
+        return positions.toArray(new HexGameStatus[0]);
+    }
+
+    /**
+     * Mide las partidas aleatorias por segundo del núcleo de bitsets en un
+     * hilo, repartiendo el mismo número de partidas entre las posiciones (la
+     * primera ronda sirve de calentamiento).
+     *
+     * @param size Tamaño del tablero.
+     * @param positions Posiciones de partida.
+     */
+    private static void kernel(int size, HexGameStatus[] positions) {
+        int[][] cells = new int[positions.length][size * size];
+        int[] colors = new int[positions.length];
+        for (int k = 0; k < positions.length; k++) {
+            for (int c = 0; c < size * size; c++) {
+                cells[k][c] = positions[k].getPos(c / size, c % size);
+            }
+            colors[k] = positions[k].getCurrentPlayerColor();
+        }
+        PlayoutKernel kernel = new PlayoutKernel(size, 42);
+        int perPosition = 200_000;
+        for (int round = 0; round < 3; round++) {
+            long firstWins = 0;
+            long t0 = System.nanoTime();
+            for (int k = 0; k < positions.length; k++) {
+                kernel.setPosition(cells[k]);
+                for (int i = 0; i < perPosition; i++) {
+                    kernel.reset();
+                    if (kernel.playout(colors[k]) == 1) {
+                        firstWins++;
+                    }
+                }
+            }
+            long nanos = System.nanoTime() - t0;
+            long total = (long) perPosition * positions.length;
+            if (round == 2) {
+                System.out.println("Núcleo de bitsets: " + (total * 1_000_000_000L / nanos) + " partidas aleatorias/s"
+                        + " (gana +1 el " + String.format("%.1f%%", 100.0 * firstWins / total) + ")");
+            }
+        }
+    }
+
+    /**
+     * Juega una serie de partidas entre RAVE y UCT y muestra las victorias de
+     * RAVE y las partidas aleatorias por segundo de cada uno.
+     *
+     * @param label Nombre de la prueba.
+     * @param size Tamaño del tablero.
+     * @param games Número de partidas.
+     * @param playouts Partidas aleatorias por movimiento.
+     * @param millis Tiempo por movimiento en milisegundos, o 0 sin límite.
+     */
+    private static void match(String label, int size, int games, long playouts, int millis) {
+        int raveWins = 0;
+        long[] rate = new long[2];
+        long[] moves = new long[2];
+        for (int game = 0; game < games; game++) {
+            PlayerMCTS rave = new PlayerMCTS();
+            PlayerMCTS uct = new PlayerMCTS();
+            uct.setRave(false);
+            rave.setMaxPlayouts(playouts);
+            uct.setMaxPlayouts(playouts);
+            int raveColor = (game % 2 == 0) ? 1 : -1;
+
+            HexGameStatus gs = new HexGameStatus(size);
+            while (!gs.isGameOver()) {
+                boolean raveMoves = gs.getCurrentPlayerColor() == raveColor;
+                PlayerMCTS player = raveMoves ? rave : uct;
+                PlayerMove pm = move(player, gs, millis);
+                int k = raveMoves ? 0 : 1;
+                rate[k] += player.getLastStats().playoutsPerSecond;
+                moves[k]++;
+                gs.placeStone(pm.getPoint());
+                if (gs.isGameOver() && raveMoves) {
+                    raveWins++;
+                }
+            }
+        }
+        System.out.println(label + ": RAVE gana " + raveWins + "/" + games
+                + ", partidas aleatorias/s RAVE " + rate[0] / Math.max(1, moves[0])
+                + ", UCT " + rate[1] / Math.max(1, moves[1]));
+    }
+
+    /**
+     * Pide un movimiento al jugador, llamando a {@link PlayerMCTS#timeout()}
+     * desde otro hilo al cabo de {@code millis} milisegundos como hace el juego.
+     *
+     * @param player Jugador.
+     * @param gs Estado actual.
+     * @param millis Tiempo en milisegundos, o 0 sin límite.
+     * @return Movimiento elegido.
+     */
+    private static PlayerMove move(PlayerMCTS player, HexGameStatus gs, int millis) {
+        if (millis <= 0) {
+            return player.move(new HexGameStatus(gs));
+        }
+        Thread timer = new Thread(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            player.timeout();
+        });
+        timer.start();
+        PlayerMove pm = player.move(new HexGameStatus(gs));
+        timer.interrupt();
+        return pm;
+    }
+}
@@ -0,0 +1,134 @@
+package edu.upc.epsevg.prop.hex;
+
+import edu.upc.epsevg.prop.hex.players.OpeningBook;
+import edu.upc.epsevg.prop.hex.players.PlayerID;
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Genera un libro de aperturas ({@link OpeningBook}) para {@link PlayerID}
+ * con búsquedas largas hechas una sola vez, fuera de las partidas.
+ *
+ * <p>Cubre las posiciones con menos de {@code jugades} piedras en las que
+ * mueve el jugador del libro, jugando tanto de primero (desde el tablero
+ * vacío) como de segundo (tras cualquier primera jugada del rival). Por el
+ * lado del libro se sigue sólo la jugada elegida; por el lado del rival, todas
+ * sus respuestas. Las posiciones simétricas (giro de 180 grados) se buscan una
+ * sola vez. Cada posición se busca {@code ms} milisegundos.</p>
+ *
+ * <p>Uso: {@code OpeningBookBuilder [mida] [jugades] [ms] [fitxer]}</p>
+ */
+public class OpeningBookBuilder {
+
+    public static void main(String[] args) throws IOException {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 11;
+        int plies = (args.length > 1) ? Integer.parseInt(args[1]) : 2;
+        int millis = (args.length > 2) ? Integer.parseInt(args[2]) : 10000;
+        Path file = Paths.get((args.length > 3) ? args[3] : "opening-" + size + ".book");
+
+        OpeningBook.Builder book = new OpeningBook.Builder(size);
+        PlayerID player = new PlayerID(256, PlayerID.Search.PVS);
+
+        // Posiciones en las que mueve el libro: el tablero vacío y cada primera jugada del rival.
+        Deque<HexGameStatus> pending = new ArrayDeque<>();
+        HexGameStatus empty = new HexGameStatus(size);
+        pending.add(empty);
+        for (HexGameStatus next : replies(empty)) {
+            pending.add(next);
+        }
+
+        long start = System.currentTimeMillis();
+        int searched = 0;
+        while (!pending.isEmpty()) {
+            HexGameStatus gs = pending.poll();
+            int stones = stones(gs);
+            if (stones >= plies || book.contains(gs)) {
+                continue;
+            }
+            PlayerMove pm = search(player, gs, millis);
+            Point move = pm.getPoint();
+            book.add(gs, move, player.getLastStats().depth);
+            searched++;
+            System.out.println(searched + ": " + stones + " piedras, jugada (" + move.x + "," + move.y + ")"
+                    + ", profundidad " + player.getLastStats().depth + ", pendientes " + pending.size());
+
+            HexGameStatus after = new HexGameStatus(gs);
+            after.placeStone(move);
+            if (!after.isGameOver() && stones + 2 < plies) {
+                for (HexGameStatus next : replies(after)) {
+                    pending.add(next);
+                }
+            }
+        }
+
+        book.write(file);
+        OpeningBook written = OpeningBook.open(file);
+        System.out.println("Libro " + file + ": " + written.getEntries() + " posiciones, "
+                + Files.size(file) + " bytes, " + (System.currentTimeMillis() - start) / 1000 + " s");
+    }
+
+    /**
+     * Busca una posición con un tiempo fijo, llamando a
+     * {@link PlayerID#timeout()} desde otro hilo como hace el juego.
+     *
+     * @param player Jugador.
+     * @param gs Estado a buscar.
+     * @param millis Tiempo en milisegundos.
+     * @return Jugada elegida.
+     */
+    private static PlayerMove search(PlayerID player, HexGameStatus gs, int millis) {
+        Thread timer = new Thread(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            player.timeout();
+        });
+        timer.start();
+        PlayerMove pm = player.move(new HexGameStatus(gs));
+        timer.interrupt();
+        return pm;
+    }
+
+    /**
+     * Devuelve las posiciones que resultan de cada jugada posible del
+     * jugador que mueve.
+     *
+     * @param gs Estado actual.
+     * @return Un estado nuevo por jugada.
+     */
+    private static HexGameStatus[] replies(HexGameStatus gs) {
+        List<MoveNode> moves = gs.getMoves();
+        HexGameStatus[] out = new HexGameStatus[moves.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = new HexGameStatus(gs);
+            out[i].placeStone(moves.get(i).getPoint());
+        }
+        return out;
+    }
+
+    /**
+     * Cuenta las piedras del tablero.
+     *
+     * @param gs Estado del juego.
+     * @return Número de celdas ocupadas.
+     */
+    private static int stones(HexGameStatus gs) {
+        int n = 0;
+        for (int i = 0; i < gs.getSize(); i++) {
+            for (int j = 0; j < gs.getSize(); j++) {
+                if (gs.getPos(i, j) != 0) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,184 @@
+package edu.upc.epsevg.prop.hex;
+
+import edu.upc.epsevg.prop.hex.players.PlayerID;
+import java.awt.Point;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Banco de pruebas de la búsqueda de {@link PlayerID}. Genera posiciones
+ * aleatorias (con semilla fija) y las busca a profundidad fija con distintas
+ * configuraciones del jugador, mostrando los nodos explorados y el tiempo de
+ * cada una. Todas las configuraciones deben elegir jugadas de igual valor.
+ *
+ * <p>Después compara la búsqueda paralela YBWC con la secuencial a la misma
+ * profundidad (aceleración en tiempo y nodos de más buscados) y mide Lazy SMP
+ * con 1, 2, 4... hasta {@code fils} hilos, dando a cada posición {@code ms}
+ * milisegundos, y muestra los nodos por segundo.</p>
+ *
+ * <p>Uso: {@code SearchBenchmark [mida] [posicions] [profunditat] [fils] [ms]}</p>
+ */
+public class SearchBenchmark {
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+        int count = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int depth = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+        int maxThreads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int millis = (args.length > 4) ? Integer.parseInt(args[4]) : 500;
+
+        HexGameStatus[] positions = randomPositions(size, count, new Random(42));
+        System.out.println("Posiciones: " + count + " (" + size + "x" + size + "), profundidad " + depth);
+
+        PlayerID unordered = new PlayerID();
+        unordered.setMoveOrdering(false);
+        unordered.setAspiration(false);
+        run("Sin ordenación", unordered, positions, depth);
+
+        PlayerID ordered = new PlayerID();
+        ordered.setAspiration(false);
+        run("TT + killers + historia", ordered, positions, depth);
+
+        PlayerID.SearchStats sequential = run("+ aspiración", new PlayerID(), positions, depth);
+
+        run("PVS + aspiración", new PlayerID(64, PlayerID.Search.PVS), positions, depth);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            PlayerID player = new PlayerID(64, PlayerID.Search.YBWC);
+            player.setThreads(threads);
+            PlayerID.SearchStats st = run("YBWC " + threads + " hilos", player, positions, depth);
+            System.out.println("  aceleración " + ratio(sequential.timeMillis, st.timeMillis)
+                    + ", nodos de más " + percent(st.nodes - sequential.nodes, sequential.nodes)
+                    + ", repartos " + st.splits);
+        }
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            PlayerID player = new PlayerID();
+            player.setThreads(threads);
+            runTimed(threads + " hilos", player, positions, millis);
+        }
+    }
+
+    /**
+     * Busca todas las posiciones con un tiempo fijo por posición, llamando a
+     * {@link PlayerID#timeout()} desde otro hilo como hace el juego.
+     *
+     * @param label Nombre de la configuración.
+     * @param player Jugador configurado.
+     * @param positions Posiciones a buscar.
+     * @param millis Tiempo por posición en milisegundos.
+     */
+    private static void runTimed(String label, PlayerID player, HexGameStatus[] positions, int millis) {
+        long nodes = 0;
+        long elapsed = 0;
+        long depths = 0;
+        for (HexGameStatus gs : positions) {
+            Thread timer = new Thread(() -> {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                player.timeout();
+            });
+            timer.start();
+            player.move(new HexGameStatus(gs));
+            timer.interrupt();
+            PlayerID.SearchStats st = player.getLastStats();
+            nodes += st.totalNodes;
+            elapsed += st.timeMillis;
+            depths += st.depth;
+        }
+        System.out.println(label + ": " + (nodes * 1000 / Math.max(1, elapsed)) + " nodos/s"
+                + ", profundidad media " + String.format("%.1f", (double) depths / positions.length));
+    }
+
+    /**
+     * Busca todas las posiciones con un jugador y muestra el total de sus estadísticas.
+     *
+     * @param label Nombre de la configuración.
+     * @param player Jugador configurado.
+     * @param positions Posiciones a buscar.
+     * @param depth Profundidad de búsqueda.
+     * @return Suma de los nodos, el tiempo y los repartos de todas las posiciones.
+     */
+    private static PlayerID.SearchStats run(String label, PlayerID player, HexGameStatus[] positions, int depth) {
+        player.setMaxDepth(depth);
+        long nodes = 0;
+        long millis = 0;
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+        long researches = 0;
+        long aspirationResearches = 0;
+        long splits = 0;
+        for (HexGameStatus gs : positions) {
+            player.move(new HexGameStatus(gs));
+            PlayerID.SearchStats st = player.getLastStats();
+            splits += st.splits;
+            nodes += st.nodes;
+            millis += st.timeMillis;
+            cutoffs += st.cutoffs;
+            firstMoveCutoffs += st.firstMoveCutoffs;
+            researches += st.researches;
+            aspirationResearches += st.aspirationResearches;
+        }
+        System.out.println(label + ": nodos " + nodes + ", " + millis + " ms"
+                + ", cortes en la primera jugada " + percent(firstMoveCutoffs, cutoffs)
+                + ", re-búsquedas " + researches
+                + ", re-búsquedas de aspiración " + aspirationResearches);
+
+        PlayerID.SearchStats total = new PlayerID.SearchStats();
+        total.nodes = nodes;
+        total.timeMillis = millis;
+        total.splits = splits;
+        return total;
+    }
+
+    /**
+     * Genera posiciones no terminales jugando movimientos aleatorios.
+     *
+     * @param size Tamaño del tablero.
+     * @param count Número de posiciones.
+     * @param rnd Generador aleatorio.
+     * @return Posiciones generadas.
+     */
+    private static HexGameStatus[] randomPositions(int size, int count, Random rnd) {
+        HexGameStatus[] positions = new HexGameStatus[count];
+        for (int i = 0; i < count; i++) {
+            HexGameStatus gs = new HexGameStatus(size);
+            int stones = rnd.nextInt(size * size / 3);
+            for (int k = 0; k < stones; k++) {
+                List<MoveNode> moves = gs.getMoves();
+                Point p = moves.get(rnd.nextInt(moves.size())).getPoint();
+                HexGameStatus next = new HexGameStatus(gs);
+                next.placeStone(p);
+                if (next.isGameOver()) break;
+                gs = next;
+            }
+            positions[i] = gs;
+        }
+        return positions;
+    }
+
+    /**
+     * Formatea un cociente como factor multiplicativo.
+     *
+     * @param num Numerador.
+     * @param den Denominador.
+     * @return Cociente con dos decimales seguido de "x".
+     */
+    private static String ratio(long num, long den) {
+        return String.format("%.2fx", (double) num / Math.max(1, den));
+    }
+
+    /**
+     * Formatea un cociente como porcentaje.
+     *
+     * @param part Numerador.
+     * @param total Denominador.
+     * @return Porcentaje con un decimal.
+     */
+    private static String percent(long part, long total) {
+        return String.format("%.1f%%", (total == 0) ? 0.0 : 100.0 * part / total);
+    }
+}
@@ -1,47 +1,105 @@
-/*
- * To change this license header, choose License Headers in Project Properties.
- * To change this template file, choose Tools | Templates
- * and open the template in the editor.
- */
-package edu.upc.epsevg.prop.hex;
-
-import edu.upc.epsevg.prop.hex.HexGameStatus;
-import edu.upc.epsevg.prop.hex.PlayerType;
-import edu.upc.epsevg.prop.hex.players.Heuristica;
-import edu.upc.epsevg.prop.hex.players.Heuristica.PathInfo;
-import edu.upc.epsevg.prop.hex.players.ProfeGameStatus2;
-import edu.upc.epsevg.prop.hex.players.ProfeGameStatus3;
-import edu.upc.epsevg.prop.hex.players.ProfeGameStatus3.Result;
-/**
- *
- * @author bernat
- */
-public class UnitTesting {
-    
-    
-    
-    public static void main(String[] args) {
-    
-        
-        byte[][] board = {
-        //X   0  1  2  3  4  5  6  7  8
-            { 0, 0, 0, 0,  -1, 0, 0, 0, 0},                     // 0   Y
-              { 0, 0, 0, 0, -1, 0, 0, 0, 0},                    // 1
-                { 0, 0, 0, 0, -1, 0, 0, 0, 0},                  // 2
-                  { 0, 0, 0, 0, -1, 0, 0, 0, 0},                // 3
-                    { 0, 0, 0, 0, -1, 0, 0, 1, 0},              // 4  
-                      { 1, 1, 1, 1, -1, 1, 1, 0, 1},            // 5    
-                        { 0, 0, 0,-1, 1,-1, 1,-1, 0},          // 6      
-                          { 1, 1, 1, 0, -1, 0,1, 1, 0},        // 7       
-                            { 0, 0, 0, 0, 0, 0,-1, 0, 1}       // 8    Y         
-        };
-
-
-        HexGameStatus gs = new HexGameStatus(board, PlayerType.PLAYER1);        
-        
-        // Ejecutar Heuristica
-        PathInfo info = Heuristica.runDijkstra(gs, -1);
-        System.out.println("Resultados de Dijkstra:");
-        System.out.println("Distancia mínima: " + info.shortestPath);
-    }
-}
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.upc.epsevg.prop.hex;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import edu.upc.epsevg.prop.hex.PlayerType;
+import edu.upc.epsevg.prop.hex.players.Heuristica;
+import edu.upc.epsevg.prop.hex.players.Heuristica.PathInfo;
+import edu.upc.epsevg.prop.hex.players.HeuristicaID;
+import edu.upc.epsevg.prop.hex.players.HexBoard;
+import edu.upc.epsevg.prop.hex.players.HexEvaluator;
+import edu.upc.epsevg.prop.hex.players.ProfeGameStatus2;
+import edu.upc.epsevg.prop.hex.players.ProfeGameStatus3;
+import edu.upc.epsevg.prop.hex.players.ProfeGameStatus3.Result;
+import edu.upc.epsevg.prop.hex.players.ZobristHexState;
+import java.awt.Point;
+import java.util.concurrent.CountDownLatch;
+/**
+ *
+ * @author bernat
+ */
+public class UnitTesting {
+    
+    
+    
+    public static void main(String[] args) throws InterruptedException {
+    
+        
+        byte[][] board = {
+        //X   0  1  2  3  4  5  6  7  8
+            { 0, 0, 0, 0,  -1, 0, 0, 0, 0},                     // 0   Y
+              { 0, 0, 0, 0, -1, 0, 0, 0, 0},                    // 1
+                { 0, 0, 0, 0, -1, 0, 0, 0, 0},                  // 2
+                  { 0, 0, 0, 0, -1, 0, 0, 0, 0},                // 3
+                    { 0, 0, 0, 0, -1, 0, 0, 1, 0},              // 4  
+                      { 1, 1, 1, 1, -1, 1, 1, 0, 1},            // 5    
+                        { 0, 0, 0,-1, 1,-1, 1,-1, 0},          // 6      
+                          { 1, 1, 1, 0, -1, 0,1, 1, 0},        // 7       
+                            { 0, 0, 0, 0, 0, 0,-1, 0, 1}       // 8    Y         
+        };
+
+
+        HexGameStatus gs = new HexGameStatus(board, PlayerType.PLAYER1);        
+        
+        // Ejecutar Heuristica
+        PathInfo info = Heuristica.runDijkstra(gs, -1);
+        System.out.println("Resultados de Dijkstra:");
+        System.out.println("Distancia mínima: " + info.shortestPath);
+
+        // Comparar el evaluador sin reservas de memoria con la implementación de referencia
+        HexBoard tablero = new HexBoard(gs);
+        HexEvaluator evaluador = new HexEvaluator(gs.getSize());
+        for (int color : new int[]{1, -1}) {
+            int referencia = HeuristicaID.runDijkstra(tablero, color).shortestPath;
+            int evaluada = evaluador.shortestPath(tablero, color);
+            System.out.println("Color " + color + ": runDijkstra=" + referencia
+                    + " HexEvaluator=" + evaluada + (referencia == evaluada ? " OK" : " ERROR"));
+        }
+
+        // Varios hilos construyen a la vez el primer estado de un tamaño nuevo, como los 
+        // ayudantes de Lazy SMP en el primer movimiento: todos deben obtener las claves de 
+        // referencia. Alternar dos tamaños hace que cada ronda regenere las tablas Zobrist.
+        HexGameStatus[] estados = {new HexGameStatus(12), new HexGameStatus(13)};
+        long[][] esperadas = new long[2][];
+        for (int s = 0; s < 2; s++) {
+            estados[s].placeStone(new Point(5, 5));
+            estados[s].placeStone(new Point(0, 11));
+            ZobristHexState z = new ZobristHexState(estados[s]);
+            esperadas[s] = new long[]{z.getKey(), z.getCheckKey()};
+        }
+        int hilos = 8;
+        int errores = 0;
+        for (int ronda = 0; ronda < 200; ronda++) {
+            HexGameStatus estado = estados[ronda % 2];
+            long[] esperada = esperadas[ronda % 2];
+            long[][] claves = new long[hilos][];
+            CountDownLatch salida = new CountDownLatch(1);
+            Thread[] ts = new Thread[hilos];
+            for (int i = 0; i < hilos; i++) {
+                final int k = i;
+                ts[i] = new Thread(() -> {
+                    try {
+                        salida.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    ZobristHexState z = new ZobristHexState(estado);
+                    claves[k] = new long[]{z.getKey(), z.getCheckKey()};
+                });
+                ts[i].start();
+            }
+            salida.countDown();
+            for (int i = 0; i < hilos; i++) {
+                ts[i].join();
+                if (claves[i] == null || claves[i][0] != esperada[0] || claves[i][1] != esperada[1]) {
+                    errores++;
+                }
+            }
+        }
+        System.out.println("Zobrist con " + hilos + " hilos: " + (errores == 0 ? "OK" : errores + " ERROR"));
+    }
+}
@@ -0,0 +1,453 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import java.util.Arrays;
+
+/**
+ * Tablero interno del motor de búsqueda. Representa cada color como un bitset
+ * ({@code long[]}, bit {@code x * size + y}) y permite hacer y deshacer
+ * jugadas sin reservar memoria, de forma que la búsqueda no necesita clonar
+ * {@link HexGameStatus} en cada nodo.
+ *
+ * <p>Mantiene de forma incremental las claves Zobrist de {@link ZobristHexState}
+ * (clave principal y de verificación), por lo que las claves de un mismo estado
+ * coinciden en ambas clases.</p>
+ *
+ * <p>La detección de victoria usa una estructura union-find incremental con
+ * cuatro nodos virtuales, uno por cada borde. Al colocar una piedra se une con
+ * sus vecinas del mismo color y con los bordes que toca; la partida termina
+ * cuando los dos bordes de un jugador quedan en el mismo conjunto. Para poder
+ * deshacer jugadas se usa unión por tamaño sin compresión de caminos y se
+ * registra cada unión en una pila, de modo que {@link #undo(int)} las revierte
+ * en orden inverso. Cada búsqueda de raíz cuesta O(log n), sin recorrer el grupo.</p>
+ */
+public class HexBoard {
+
+    /**
+     * Máximo de uniones que puede provocar una jugada (seis vecinos y dos bordes).
+     */
+    private static final int MAX_UNIONS_PER_MOVE = 8;
+
+    /**
+     * Tamaño del tablero.
+     */
+    private final int size;
+
+    /**
+     * Número de celdas ({@code size * size}).
+     */
+    private final int cellCount;
+
+    /**
+     * Topología precalculada (vecinos y coordenadas) del tamaño de tablero.
+     */
+    private final HexTopology topology;
+
+    /**
+     * Bitset de las piedras del jugador +1.
+     */
+    private final long[] player1;
+
+    /**
+     * Bitset de las piedras del jugador -1.
+     */
+    private final long[] player2;
+
+    /**
+     * Padre de cada nodo en la estructura union-find. Los nodos
+     * {@code cellCount..cellCount+3} son los bordes: filas 0 y size-1 
+     * (jugador +1) y columnas 0 y size-1 (jugador -1).
+     */
+    private final int[] parent;
+
+    /**
+     * Tamaño del conjunto de cada raíz.
+     */
+    private final int[] setSize;
+
+    /**
+     * Pila de nodos que dejaron de ser raíz en cada unión, para deshacerlas.
+     */
+    private final int[] unionLog;
+
+    /**
+     * Altura actual de {@link #unionLog}.
+     */
+    private int unionTop;
+
+    /**
+     * Número de uniones realizadas por cada jugada, apiladas en orden.
+     */
+    private final int[] movesLog;
+
+    /**
+     * Color del jugador al que le toca mover.
+     */
+    private int currentColor;
+
+    /**
+     * Color del ganador, o 0 si la partida no ha terminado.
+     */
+    private int winner;
+
+    /**
+     * Número de piedras colocadas.
+     */
+    private int stones;
+
+    /**
+     * Clave Zobrist del estado actual.
+     */
+    private long key;
+
+    /**
+     * Clave de verificación del estado actual.
+     */
+    private long check;
+
+    /**
+     * Construye el tablero a partir de un estado de juego. Es el único punto
+     * en el que se lee {@link HexGameStatus}.
+     *
+     * @param gs Estado de juego original (no se modifica).
+     */
+    public HexBoard(HexGameStatus gs) {
+        this.size = gs.getSize();
+        this.cellCount = size * size;
+        this.topology = HexTopology.of(size);
+        int words = (cellCount + 63) >>> 6;
+        this.player1 = new long[words];
+        this.player2 = new long[words];
+        this.parent = new int[cellCount + 4];
+        this.setSize = new int[cellCount + 4];
+        this.unionLog = new int[cellCount * MAX_UNIONS_PER_MOVE];
+        this.movesLog = new int[cellCount];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+            setSize[i] = 1;
+        }
+
+        // Se reproducen las piedras ya colocadas para construir los conjuntos.
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int occupant = gs.getPos(x, y);
+                if (occupant != 0) {
+                    putStone(x * size + y, occupant);
+                    stones++;
+                }
+            }
+        }
+        // Las uniones de las piedras iniciales nunca se deshacen.
+        this.unionTop = 0;
+        this.currentColor = gs.getCurrentPlayerColor();
+        this.winner = gs.isGameOver() ? gs.getCurrentPlayerColor() : 0;
+
+        ZobristHexState z = new ZobristHexState(gs);
+        this.key = z.getKey();
+        this.check = z.getCheckKey();
+    }
+
+    /**
+     * Construye una copia independiente de otro tablero, incluida la pila de
+     * uniones, de modo que la copia también puede deshacer las jugadas del
+     * original. Lo usa la búsqueda paralela para dar un tablero a cada tarea.
+     *
+     * @param other Tablero a copiar.
+     */
+    public HexBoard(HexBoard other) {
+        this.size = other.size;
+        this.cellCount = other.cellCount;
+        this.topology = other.topology;
+        this.player1 = other.player1.clone();
+        this.player2 = other.player2.clone();
+        this.parent = other.parent.clone();
+        this.setSize = other.setSize.clone();
+        this.unionLog = other.unionLog.clone();
+        this.unionTop = other.unionTop;
+        this.movesLog = other.movesLog.clone();
+        this.currentColor = other.currentColor;
+        this.winner = other.winner;
+        this.stones = other.stones;
+        this.key = other.key;
+        this.check = other.check;
+    }
+
+    /**
+     * Copia en este tablero el estado de otro del mismo tamaño, sin reservar
+     * memoria. Sólo se copian las partes usadas de las pilas de deshacer.
+     *
+     * @param other Tablero a copiar.
+     */
+    public void copyFrom(HexBoard other) {
+        System.arraycopy(other.player1, 0, player1, 0, player1.length);
+        System.arraycopy(other.player2, 0, player2, 0, player2.length);
+        System.arraycopy(other.parent, 0, parent, 0, parent.length);
+        System.arraycopy(other.setSize, 0, setSize, 0, setSize.length);
+        System.arraycopy(other.unionLog, 0, unionLog, 0, other.unionTop);
+        System.arraycopy(other.movesLog, 0, movesLog, 0, other.stones);
+        this.unionTop = other.unionTop;
+        this.currentColor = other.currentColor;
+        this.winner = other.winner;
+        this.stones = other.stones;
+        this.key = other.key;
+        this.check = other.check;
+    }
+
+    /**
+     * Coloca una piedra del jugador actual en una celda vacía, actualiza las
+     * claves, comprueba si la jugada gana la partida y pasa el turno.
+     *
+     * @param cell Índice de la celda ({@code x * size + y}).
+     */
+    public void play(int cell) {
+        int color = currentColor;
+        movesLog[stones] = putStone(cell, color);
+        stones++;
+        int x = topology.row[cell];
+        int y = topology.col[cell];
+        key ^= ZobristHexState.stoneDelta(x, y, color);
+        check ^= ZobristHexState.checkDelta(x, y, color);
+        if (edgesConnected(color)) {
+            winner = color;
+        }
+        currentColor = -color;
+    }
+
+    /**
+     * Deshace la última jugada, que debe haberse hecho en {@code cell}.
+     *
+     * @param cell Índice de la celda de la última jugada.
+     */
+    public void undo(int cell) {
+        int color = -currentColor;
+        stones--;
+        for (int i = movesLog[stones]; i > 0; i--) {
+            int child = unionLog[--unionTop];
+            int root = parent[child];
+            setSize[root] -= setSize[child];
+            parent[child] = child;
+        }
+        long[] bits = (color == 1) ? player1 : player2;
+        bits[cell >>> 6] &= ~(1L << cell);
+
+        int x = topology.row[cell];
+        int y = topology.col[cell];
+        key ^= ZobristHexState.stoneDelta(x, y, color);
+        check ^= ZobristHexState.checkDelta(x, y, color);
+        winner = 0;
+        currentColor = color;
+    }
+
+    /**
+     * Marca la piedra en el bitset de su color y la une con sus vecinas del
+     * mismo color y con los bordes de su jugador que toca.
+     *
+     * @param cell Celda de la piedra.
+     * @param color Color de la piedra.
+     * @return Número de uniones efectivas realizadas (para poder deshacerlas).
+     */
+    private int putStone(int cell, int color) {
+        long[] bits = (color == 1) ? player1 : player2;
+        bits[cell >>> 6] |= 1L << cell;
+
+        int unions = 0;
+        int[] neighbours = topology.neighbours;
+        for (int i = topology.neighbourStart[cell], end = topology.neighbourStart[cell + 1]; i < end; i++) {
+            int n = neighbours[i];
+            if ((bits[n >>> 6] & (1L << n)) != 0) {
+                unions += union(cell, n);
+            }
+        }
+        int line = (color == 1) ? topology.row[cell] : topology.col[cell];
+        int edgeBase = cellCount + ((color == 1) ? 0 : 2);
+        if (line == 0) {
+            unions += union(cell, edgeBase);
+        }
+        if (line == size - 1) {
+            unions += union(cell, edgeBase + 1);
+        }
+        return unions;
+    }
+
+    /**
+     * Une los conjuntos de dos nodos colgando la raíz del conjunto pequeño de
+     * la del grande, y registra la unión para poder deshacerla.
+     *
+     * @param a Primer nodo.
+     * @param b Segundo nodo.
+     * @return 1 si se han unido dos conjuntos distintos, 0 si ya estaban unidos.
+     */
+    private int union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) {
+            return 0;
+        }
+        if (setSize[ra] < setSize[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        setSize[ra] += setSize[rb];
+        unionLog[unionTop++] = rb;
+        return 1;
+    }
+
+    /**
+     * Devuelve la raíz del conjunto de un nodo (sin compresión de caminos, 
+     * para que las uniones se puedan deshacer).
+     *
+     * @param node Nodo.
+     * @return Raíz de su conjunto.
+     */
+    private int find(int node) {
+        while (parent[node] != node) {
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Indica si los dos bordes del jugador {@code color} están conectados.
+     *
+     * @param color Color del jugador.
+     * @return {@code true} si el jugador ha ganado.
+     */
+    private boolean edgesConnected(int color) {
+        int edgeBase = cellCount + ((color == 1) ? 0 : 2);
+        return find(edgeBase) == find(edgeBase + 1);
+    }
+
+    /**
+     * Devuelve el tamaño del tablero.
+     *
+     * @return Número de filas y columnas.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Devuelve el ocupante de la celda (x, y).
+     *
+     * @param x Fila de la celda.
+     * @param y Columna de la celda.
+     * @return 1, -1 o 0 si está vacía.
+     */
+    public int getPos(int x, int y) {
+        return getCell(x * size + y);
+    }
+
+    /**
+     * Devuelve el ocupante de una celda por su índice.
+     *
+     * @param cell Índice de la celda.
+     * @return 1, -1 o 0 si está vacía.
+     */
+    public int getCell(int cell) {
+        long mask = 1L << cell;
+        if ((player1[cell >>> 6] & mask) != 0) return 1;
+        if ((player2[cell >>> 6] & mask) != 0) return -1;
+        return 0;
+    }
+
+    /**
+     * Vuelca el ocupante de todas las celdas (1, -1 o 0) en {@code out}, 
+     * recorriendo los bitsets palabra a palabra.
+     *
+     * @param out Array de destino de tamaño {@code size * size}.
+     */
+    public void decode(byte[] out) {
+        Arrays.fill(out, (byte) 0);
+        for (int w = 0; w < player1.length; w++) {
+            long bits = player1[w];
+            while (bits != 0) {
+                out[(w << 6) + Long.numberOfTrailingZeros(bits)] = 1;
+                bits &= bits - 1;
+            }
+            bits = player2[w];
+            while (bits != 0) {
+                out[(w << 6) + Long.numberOfTrailingZeros(bits)] = -1;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Escribe en {@code out} las celdas vacías en orden creciente de índice,
+     * recorriendo los bitsets palabra a palabra.
+     *
+     * @param out Buffer de destino de tamaño {@code size * size}.
+     * @return Número de celdas escritas.
+     */
+    public int emptyCells(int[] out) {
+        int count = 0;
+        int last = player1.length - 1;
+        for (int w = 0; w <= last; w++) {
+            long free = ~(player1[w] | player2[w]);
+            if (w == last && (cellCount & 63) != 0) {
+                free &= (1L << cellCount) - 1;
+            }
+            while (free != 0) {
+                out[count++] = (w << 6) + Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve el color del jugador al que le toca mover.
+     *
+     * @return 1 o -1.
+     */
+    public int getCurrentColor() {
+        return currentColor;
+    }
+
+    /**
+     * Indica si la partida ha terminado.
+     *
+     * @return {@code true} si algún jugador ha conectado sus bordes.
+     */
+    public boolean isGameOver() {
+        return winner != 0;
+    }
+
+    /**
+     * Devuelve el color del ganador.
+     *
+     * @return +1, -1, o 0 si la partida no ha terminado.
+     */
+    public int getWinnerColor() {
+        return winner;
+    }
+
+    /**
+     * Devuelve el número de celdas vacías.
+     *
+     * @return Celdas libres.
+     */
+    public int getEmptyCount() {
+        return cellCount - stones;
+    }
+
+    /**
+     * Devuelve la clave Zobrist del estado actual.
+     *
+     * @return Clave de 64 bits.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Devuelve la clave de verificación del estado actual.
+     *
+     * @return Clave de verificación de 64 bits.
+     */
+    public long getCheckKey() {
+        return check;
+    }
+}
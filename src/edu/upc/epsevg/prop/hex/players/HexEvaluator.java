@@ -0,0 +1,434 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import java.util.Arrays;
+
+/**
+ * Evaluador reutilizable que calcula la misma distancia que
+ * {@link HeuristicaID#runDijkstra} sin reservar memoria en cada llamada.
+ *
+ * <p>Trabaja con índices de celda planos ({@code x * size + y}) y ofrece dos
+ * algoritmos seleccionables ({@link Algorithm}) que devuelven el mismo valor:</p>
+ * <ul>
+ *   <li>{@link Algorithm#DIJKSTRA}: montículo binario indexado sobre arrays de 
+ *   {@code int}; cada celda aparece como mucho una vez en el montículo y una 
+ *   mejora de distancia se resuelve con una operación de "decrease-key".</li>
+ *   <li>{@link Algorithm#BFS_01}: como todos los costes son 0 (piedra propia) o 
+ *   1 (celda vacía o puente), basta una cola doble: los arcos de coste 0 se 
+ *   insertan por delante y los de coste 1 por detrás, sin comparaciones.</li>
+ * </ul>
+ *
+ * <p>Todos los buffers se reservan en el constructor, por lo que una instancia 
+ * no es segura entre hilos: cada hilo de búsqueda debe tener la suya.</p>
+ */
+public class HexEvaluator {
+
+    /**
+     * Algoritmo de camino más corto usado por el evaluador.
+     */
+    public enum Algorithm {
+        /**
+         * Dijkstra con montículo binario indexado.
+         */
+        DIJKSTRA,
+        /**
+         * Búsqueda en anchura 0-1 con cola doble.
+         */
+        BFS_01
+    }
+
+    /**
+     * Topología precalculada (vecinos y puentes) del tamaño de tablero.
+     */
+    private final HexTopology topology;
+
+    /**
+     * Tamaño del tablero para el que se han reservado los buffers.
+     */
+    private final int size;
+
+    /**
+     * Ocupante de cada celda del tablero que se está evaluando, decodificado 
+     * una sola vez desde los bitsets de {@link HexBoard}.
+     */
+    private final byte[] cells;
+
+    /**
+     * Distancia del jugador +1 calculada por {@link #computeDistances}.
+     */
+    private int distancePlayer1;
+
+    /**
+     * Distancia del jugador -1 calculada por {@link #computeDistances}.
+     */
+    private int distancePlayer2;
+
+    /**
+     * Distancia provisional de cada celda.
+     */
+    private final int[] dist;
+
+    /**
+     * Montículo binario de celdas ordenado por {@link #dist}.
+     */
+    private final int[] heap;
+
+    /**
+     * Posición de cada celda dentro de {@link #heap}, o -1 si no está.
+     */
+    private final int[] heapPos;
+
+    /**
+     * Número de celdas en el montículo.
+     */
+    private int heapSize;
+
+    /**
+     * Celdas de la cola doble circular de la búsqueda 0-1.
+     */
+    private final int[] dequeCell;
+
+    /**
+     * Distancia con la que se insertó cada elemento de la cola doble. Si al 
+     * extraerlo es mayor que {@link #dist} de su celda, el elemento está obsoleto.
+     */
+    private final int[] dequeDist;
+
+    /**
+     * Máscara de índice de la cola doble (su capacidad es potencia de dos).
+     */
+    private final int dequeMask;
+
+    /**
+     * Algoritmo seleccionado.
+     */
+    private final Algorithm algorithm;
+
+    /**
+     * Construye un evaluador para tableros de {@code size} x {@code size} con 
+     * el algoritmo por defecto ({@link Algorithm#BFS_01}).
+     *
+     * @param size Tamaño del tablero.
+     */
+    public HexEvaluator(int size) {
+        this(size, Algorithm.BFS_01);
+    }
+
+    /**
+     * Construye un evaluador para tableros de {@code size} x {@code size}.
+     *
+     * @param size Tamaño del tablero.
+     * @param algorithm Algoritmo de camino más corto a usar.
+     */
+    public HexEvaluator(int size, Algorithm algorithm) {
+        this.size = size;
+        this.algorithm = algorithm;
+        this.topology = HexTopology.of(size);
+        this.cells = new byte[size * size];
+        this.dist = new int[size * size];
+        this.heap = new int[size * size];
+        this.heapPos = new int[size * size];
+
+        // Cada celda entra en la cola una vez por cada mejora de su distancia;
+        // como mucho hay una mejora por arco (6 vecinos y 6 puentes) más la inicial.
+        int capacity = Integer.highestOneBit(size * size * 13) << 1;
+        this.dequeCell = new int[capacity];
+        this.dequeDist = new int[capacity];
+        this.dequeMask = capacity - 1;
+    }
+
+    /**
+     * Devuelve el algoritmo que usa el evaluador.
+     *
+     * @return Algoritmo seleccionado.
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Devuelve el tamaño de tablero para el que se construyó el evaluador.
+     *
+     * @return Tamaño del tablero.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Calcula el camino más corto de un jugador entre sus dos bordes, con el
+     * mismo criterio que {@link HeuristicaID#runDijkstra}: las piedras propias
+     * cuestan 0, las celdas vacías y los puentes cuestan 1, y una distancia
+     * menor o igual que 1 se considera 0.
+     *
+     * @param board  El tablero actual.
+     * @param player El jugador para el cual se calcula el camino.
+     * @return La longitud del camino más corto, o {@code Integer.MAX_VALUE} si no existe.
+     */
+    public int shortestPath(HexBoard board, int player) {
+        board.decode(cells);
+        return run(player);
+    }
+
+    /**
+     * Calcula en una sola llamada las distancias de los dos jugadores. El 
+     * tablero se decodifica una única vez y ambas pasadas comparten los mismos 
+     * buffers; los resultados se consultan con {@link #getDistance(int)}.
+     *
+     * @param board El tablero actual.
+     */
+    public void computeDistances(HexBoard board) {
+        board.decode(cells);
+        distancePlayer1 = run(1);
+        distancePlayer2 = run(-1);
+    }
+
+    /**
+     * Devuelve la distancia de un jugador calculada por el último 
+     * {@link #computeDistances(HexBoard)}.
+     *
+     * @param player Jugador (+1 o -1).
+     * @return Longitud del camino más corto, o {@code Integer.MAX_VALUE} si no existe.
+     */
+    public int getDistance(int player) {
+        return (player == 1) ? distancePlayer1 : distancePlayer2;
+    }
+
+    /**
+     * Ejecuta el algoritmo seleccionado sobre el tablero ya decodificado en 
+     * {@link #cells} y aplica el ajuste final.
+     *
+     * @param player El jugador para el cual se calcula el camino.
+     * @return La longitud del camino más corto.
+     */
+    private int run(int player) {
+        int shortestPath = (algorithm == Algorithm.BFS_01)
+                ? runBfs01(player)
+                : runDijkstra(player);
+
+        // Ajuste de shortestPath si está a punto de ganar
+        if (shortestPath <= 1) {
+            shortestPath = 0;
+        }
+        return shortestPath;
+    }
+
+    /**
+     * Dijkstra con montículo binario indexado.
+     *
+     * @param player El jugador para el cual se calcula el camino.
+     * @return La distancia mínima sin ajustar.
+     */
+    private int runDijkstra(int player) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(heapPos, -1);
+        heapSize = 0;
+
+        // Inicialización de puntos de partida: fila 0 para +1, columna 0 para -1.
+        for (int i = 0; i < size; i++) {
+            int cell = (player == 1) ? i : i * size;
+            int cellValue = cells[cell];
+            if (cellValue == player || cellValue == 0) {
+                relax(cell, (cellValue == player) ? 0 : 1);
+            }
+        }
+
+        final int[] line = (player == 1) ? topology.row : topology.col;
+        final int[] neighbourStart = topology.neighbourStart;
+        final int[] neighbours = topology.neighbours;
+        final int[] bridgeStart = topology.bridgeStart;
+        final int[] bridgeTarget = topology.bridgeTarget;
+        final int[] carrierA = topology.bridgeCarrierA;
+        final int[] carrierB = topology.bridgeCarrierB;
+
+        int shortestPath = Integer.MAX_VALUE;
+        while (heapSize > 0) {
+            int cell = pop();
+            int d = dist[cell];
+
+            // La primera celda objetivo extraída tiene la distancia mínima.
+            if (line[cell] == size - 1) {
+                shortestPath = d;
+                break;
+            }
+
+            // Visitar vecinos: se puede pasar por celdas propias o vacías.
+            for (int i = neighbourStart[cell], end = neighbourStart[cell + 1]; i < end; i++) {
+                int n = neighbours[i];
+                int cellValue = cells[n];
+                if (cellValue == player || cellValue == 0) {
+                    relax(n, d + ((cellValue == player) ? 0 : 1));
+                }
+            }
+
+            // Puentes hacia celdas vacías con las dos celdas intermedias libres.
+            for (int i = bridgeStart[cell], end = bridgeStart[cell + 1]; i < end; i++) {
+                int b = bridgeTarget[i];
+                if (cells[b] == 0 && cells[carrierA[i]] == 0 && cells[carrierB[i]] == 0) {
+                    relax(b, d + 1);
+                }
+            }
+        }
+        return shortestPath;
+    }
+
+    /**
+     * Búsqueda en anchura 0-1. Los elementos se extraen por orden de distancia 
+     * (la cola siempre contiene distancias D al frente y D+1 detrás), así que 
+     * la primera celda objetivo extraída que no esté obsoleta da la distancia mínima.
+     *
+     * @param player El jugador para el cual se calcula el camino.
+     * @return La distancia mínima sin ajustar.
+     */
+    private int runBfs01(int player) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        int head = 0;
+        int tail = 0;
+
+        // Inicialización de puntos de partida: coste 0 por delante, coste 1 por detrás.
+        for (int i = 0; i < size; i++) {
+            int cell = (player == 1) ? i : i * size;
+            int cellValue = cells[cell];
+            if (cellValue == player) {
+                dist[cell] = 0;
+                head = (head - 1) & dequeMask;
+                dequeCell[head] = cell;
+                dequeDist[head] = 0;
+            } else if (cellValue == 0) {
+                dist[cell] = 1;
+                dequeCell[tail] = cell;
+                dequeDist[tail] = 1;
+                tail = (tail + 1) & dequeMask;
+            }
+        }
+
+        final int[] line = (player == 1) ? topology.row : topology.col;
+        final int[] neighbourStart = topology.neighbourStart;
+        final int[] neighbours = topology.neighbours;
+        final int[] bridgeStart = topology.bridgeStart;
+        final int[] bridgeTarget = topology.bridgeTarget;
+        final int[] carrierA = topology.bridgeCarrierA;
+        final int[] carrierB = topology.bridgeCarrierB;
+
+        while (head != tail) {
+            int cell = dequeCell[head];
+            int d = dequeDist[head];
+            head = (head + 1) & dequeMask;
+            if (d > dist[cell]) continue;
+
+            if (line[cell] == size - 1) {
+                return d;
+            }
+
+            for (int i = neighbourStart[cell], end = neighbourStart[cell + 1]; i < end; i++) {
+                int n = neighbours[i];
+                int cellValue = cells[n];
+                if (cellValue == player) {
+                    if (d < dist[n]) {
+                        dist[n] = d;
+                        head = (head - 1) & dequeMask;
+                        dequeCell[head] = n;
+                        dequeDist[head] = d;
+                    }
+                } else if (cellValue == 0 && d + 1 < dist[n]) {
+                    dist[n] = d + 1;
+                    dequeCell[tail] = n;
+                    dequeDist[tail] = d + 1;
+                    tail = (tail + 1) & dequeMask;
+                }
+            }
+
+            for (int i = bridgeStart[cell], end = bridgeStart[cell + 1]; i < end; i++) {
+                int b = bridgeTarget[i];
+                if (cells[b] != 0 || d + 1 >= dist[b]) continue;
+                if (cells[carrierA[i]] != 0 || cells[carrierB[i]] != 0) continue;
+                dist[b] = d + 1;
+                dequeCell[tail] = b;
+                dequeDist[tail] = d + 1;
+                tail = (tail + 1) & dequeMask;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Mejora la distancia de una celda si {@code d} es menor que la actual,
+     * insertándola en el montículo o subiéndola de posición.
+     *
+     * @param cell Celda.
+     * @param d Nueva distancia candidata.
+     */
+    private void relax(int cell, int d) {
+        if (d >= dist[cell]) {
+            return;
+        }
+        dist[cell] = d;
+        int i = heapPos[cell];
+        if (i < 0) {
+            i = heapSize++;
+        }
+        siftUp(i, cell);
+    }
+
+    /**
+     * Extrae la celda con menor distancia del montículo.
+     *
+     * @return Celda extraída.
+     */
+    private int pop() {
+        int top = heap[0];
+        heapPos[top] = -1;
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * Coloca {@code cell} en el hueco {@code i} y la sube mientras su
+     * distancia sea menor que la de su padre.
+     *
+     * @param i Hueco inicial.
+     * @param cell Celda a colocar.
+     */
+    private void siftUp(int i, int cell) {
+        int d = dist[cell];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            int pc = heap[p];
+            if (dist[pc] <= d) break;
+            heap[i] = pc;
+            heapPos[pc] = i;
+            i = p;
+        }
+        heap[i] = cell;
+        heapPos[cell] = i;
+    }
+
+    /**
+     * Coloca {@code cell} en el hueco {@code i} y la baja mientras algún hijo
+     * tenga una distancia menor.
+     *
+     * @param i Hueco inicial.
+     * @param cell Celda a colocar.
+     */
+    private void siftDown(int i, int cell) {
+        int d = dist[cell];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int c = 2 * i + 1;
+            int cc = heap[c];
+            int r = c + 1;
+            if (r < heapSize && dist[heap[r]] < dist[cc]) {
+                c = r;
+                cc = heap[r];
+            }
+            if (d <= dist[cc]) break;
+            heap[i] = cc;
+            heapPos[cc] = i;
+            i = c;
+        }
+        heap[i] = cell;
+        heapPos[cell] = i;
+    }
+}
@@ -0,0 +1,181 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import java.util.Arrays;
+
+/**
+ * Topología precalculada de un tablero de Hex de un tamaño dado: vecinos,
+ * puentes (con sus dos celdas intermedias) y coordenadas de cada celda, todo
+ * en arrays planos de {@code int} indexados por celda ({@code x * size + y}).
+ *
+ * <p>Se construye una sola vez por tamaño con {@link #of(int)} y se comparte
+ * entre el evaluador, el generador de jugadas y la detección de victoria, de
+ * modo que los bucles internos no tienen que comprobar límites del tablero ni
+ * recalcular desplazamientos. Las listas usan el formato CSR: los vecinos de la
+ * celda {@code c} ocupan las posiciones {@code neighbourStart[c]} a
+ * {@code neighbourStart[c + 1] - 1} de {@link #neighbours}, y lo mismo para
+ * los puentes.</p>
+ *
+ * <p>Los puentes y sus celdas intermedias reproducen exactamente los de
+ * {@link HeuristicaID}, para que todas las implementaciones de la heurística
+ * devuelvan el mismo valor.</p>
+ */
+public final class HexTopology {
+
+    /**
+     * Desplazamientos de los seis vecinos de una celda.
+     */
+    private static final int[][] DELTAS = { {-1,0}, {1,0}, {0,-1}, {0,1}, {-1,1}, {1,-1} };
+
+    /**
+     * Desplazamientos de los puentes.
+     */
+    private static final int[][] BRIDGE_OFFSETS = { {-2, 1}, {2, -1}, {-1, -2}, {1, 2}, {-2, -1}, {2, 1} };
+
+    /**
+     * Topologías ya construidas, indexadas por tamaño.
+     */
+    private static HexTopology[] cache = new HexTopology[0];
+
+    /**
+     * Tamaño del tablero.
+     */
+    final int size;
+
+    /**
+     * Fila de cada celda.
+     */
+    final int[] row;
+
+    /**
+     * Columna de cada celda.
+     */
+    final int[] col;
+
+    /**
+     * Inicio de la lista de vecinos de cada celda en {@link #neighbours}
+     * (con una posición extra al final).
+     */
+    final int[] neighbourStart;
+
+    /**
+     * Vecinos de todas las celdas, concatenados.
+     */
+    final int[] neighbours;
+
+    /**
+     * Inicio de la lista de puentes de cada celda (con una posición extra al final).
+     */
+    final int[] bridgeStart;
+
+    /**
+     * Celda destino de cada puente.
+     */
+    final int[] bridgeTarget;
+
+    /**
+     * Primera celda intermedia de cada puente.
+     */
+    final int[] bridgeCarrierA;
+
+    /**
+     * Segunda celda intermedia de cada puente.
+     */
+    final int[] bridgeCarrierB;
+
+    /**
+     * Devuelve la topología de un tamaño de tablero, construyéndola la primera vez.
+     *
+     * @param size Tamaño del tablero.
+     * @return Topología compartida para ese tamaño.
+     */
+    public static synchronized HexTopology of(int size) {
+        if (size >= cache.length) {
+            HexTopology[] bigger = new HexTopology[size + 1];
+            System.arraycopy(cache, 0, bigger, 0, cache.length);
+            cache = bigger;
+        }
+        if (cache[size] == null) {
+            cache[size] = new HexTopology(size);
+        }
+        return cache[size];
+    }
+
+    /**
+     * Construye las tablas de un tamaño de tablero.
+     *
+     * @param size Tamaño del tablero.
+     */
+    private HexTopology(int size) {
+        this.size = size;
+        int cells = size * size;
+        this.row = new int[cells];
+        this.col = new int[cells];
+        this.neighbourStart = new int[cells + 1];
+        this.bridgeStart = new int[cells + 1];
+
+        int[] nb = new int[cells * DELTAS.length];
+        int[] bt = new int[cells * BRIDGE_OFFSETS.length];
+        int[] ba = new int[cells * BRIDGE_OFFSETS.length];
+        int[] bb = new int[cells * BRIDGE_OFFSETS.length];
+        int nCount = 0;
+        int bCount = 0;
+
+        for (int c = 0; c < cells; c++) {
+            int x = c / size;
+            int y = c % size;
+            row[c] = x;
+            col[c] = y;
+
+            neighbourStart[c] = nCount;
+            for (int[] d : DELTAS) {
+                int nx = x + d[0];
+                int ny = y + d[1];
+                if (inside(nx, ny)) {
+                    nb[nCount++] = nx * size + ny;
+                }
+            }
+
+            // Las celdas intermedias siguen la misma fórmula que HeuristicaID.addIntermediate.
+            bridgeStart[c] = bCount;
+            for (int[] o : BRIDGE_OFFSETS) {
+                int bx = x + o[0];
+                int by = y + o[1];
+                int ax = x + o[0] / 2;
+                int cy = y + o[1] / 2;
+                if (inside(bx, by) && inside(ax, y) && inside(x, cy)) {
+                    bt[bCount] = bx * size + by;
+                    ba[bCount] = ax * size + y;
+                    bb[bCount] = x * size + cy;
+                    bCount++;
+                }
+            }
+        }
+        neighbourStart[cells] = nCount;
+        bridgeStart[cells] = bCount;
+
+        this.neighbours = Arrays.copyOf(nb, nCount);
+        this.bridgeTarget = Arrays.copyOf(bt, bCount);
+        this.bridgeCarrierA = Arrays.copyOf(ba, bCount);
+        this.bridgeCarrierB = Arrays.copyOf(bb, bCount);
+    }
+
+    /**
+     * Indica si una coordenada está dentro del tablero.
+     *
+     * @param x Fila.
+     * @param y Columna.
+     * @return {@code true} si está dentro.
+     */
+    private boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < size && y < size;
+    }
+
+    /**
+     * Devuelve el tamaño del tablero.
+     *
+     * @return Tamaño del tablero.
+     */
+    public int getSize() {
+        return size;
+    }
+}
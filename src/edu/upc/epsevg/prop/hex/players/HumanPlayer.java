@@ -1,51 +1,51 @@
-package edu.upc.epsevg.prop.hex.players;
-
-import edu.upc.epsevg.prop.hex.HexGameStatus;
-import edu.upc.epsevg.prop.hex.IPlayer;
-import edu.upc.epsevg.prop.hex.PlayerMove;
-
-
-/**
- * Jugador humà de LOA
- * @author bernat
- */
-public class HumanPlayer implements IPlayer {
-
-    String name;
-
-    public HumanPlayer(String name) {
-        this.name = name;
-    }
-
-    /**
-     * Decideix el moviment del jugador donat un tauler i un color de peça que
-     * ha de posar.
-     *
-     * @param s Tauler i estat actual de joc.
-     * @return el moviment que fa el jugador.
-     */
-    @Override
-    public PlayerMove move(HexGameStatus s) {
-        return null;
-    }
-
-    /**
-     * Ens avisa que hem de parar la cerca en curs perquè s'ha exhaurit el temps
-     * de joc.
-     */
-    @Override
-    public void timeout() {
-        // Bah! Humans do not enjoy timeouts, oh, poor beasts !
-        System.out.println("Bah! You are so slow...");
-    }
-
-    /**
-     * Retorna el nom del jugador que s'utlilitza per visualització a la UI
-     *
-     * @return Nom del jugador
-     */
-    @Override
-    public String getName() {
-        return "Human(" + name + ")";
-    }
-}
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import edu.upc.epsevg.prop.hex.IPlayer;
+import edu.upc.epsevg.prop.hex.PlayerMove;
+
+
+/**
+ * Jugador humà de LOA
+ * @author bernat
+ */
+public class HumanPlayer implements IPlayer {
+
+    String name;
+
+    public HumanPlayer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Decideix el moviment del jugador donat un tauler i un color de peça que
+     * ha de posar.
+     *
+     * @param s Tauler i estat actual de joc.
+     * @return el moviment que fa el jugador.
+     */
+    @Override
+    public PlayerMove move(HexGameStatus s) {
+        return null;
+    }
+
+    /**
+     * Ens avisa que hem de parar la cerca en curs perquè s'ha exhaurit el temps
+     * de joc.
+     */
+    @Override
+    public void timeout() {
+        // Bah! Humans do not enjoy timeouts, oh, poor beasts !
+        System.out.println("Bah! You are so slow...");
+    }
+
+    /**
+     * Retorna el nom del jugador que s'utlilitza per visualització a la UI
+     *
+     * @return Nom del jugador
+     */
+    @Override
+    public String getName() {
+        return "Human(" + name + ")";
+    }
+}
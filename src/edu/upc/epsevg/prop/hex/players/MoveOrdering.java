@@ -0,0 +1,238 @@
+package edu.upc.epsevg.prop.hex.players;
+
+/**
+ * Ordenación de jugadas para la búsqueda alpha-beta de {@link PlayerID}.
+ *
+ * <p>Las jugadas de un nodo se prueban por etapas: primero la jugada de la
+ * tabla de transposición, después las dos jugadas <i>killer</i> del nivel
+ * (las últimas que provocaron un corte en otro nodo de la misma distancia a
+ * la raíz) y a continuación el resto según la tabla de historia, que acumula
+ * {@code depth * depth} por cada corte de una celda y color. Las celdas sin
+ * historia quedan al final en su orden original.</p>
+ *
+ * <p>La ordenación es perezosa: {@link #score} sólo asigna una puntuación a
+ * cada jugada y {@link #pickNext} extrae la mejor de las que quedan justo
+ * antes de explorarla, de forma que si el nodo se poda pronto no se ordena el
+ * resto de la lista. La extracción desplaza las jugadas intermedias en lugar
+ * de intercambiarlas, por lo que a igual puntuación se conserva el orden.</p>
+ *
+ * <p>Todos los buffers se reservan al construir el objeto.</p>
+ */
+class MoveOrdering {
+
+    /**
+     * Puntuación de la jugada de la tabla de transposición.
+     */
+    private static final int TT_MOVE_SCORE = Integer.MAX_VALUE;
+
+    /**
+     * Puntuación de la primera jugada killer del nivel.
+     */
+    private static final int KILLER1_SCORE = Integer.MAX_VALUE - 1;
+
+    /**
+     * Puntuación de la segunda jugada killer del nivel.
+     */
+    private static final int KILLER2_SCORE = Integer.MAX_VALUE - 2;
+
+    /**
+     * Valor de historia a partir del cual se divide toda la tabla entre dos,
+     * para que nunca alcance la puntuación de las killer.
+     */
+    private static final int HISTORY_LIMIT = 1 << 28;
+
+    /**
+     * Número de celdas del tablero.
+     */
+    private final int cells;
+
+    /**
+     * Jugadas killer por nivel: {@code killers[ply][0]} es la más reciente.
+     */
+    private final int[][] killers;
+
+    /**
+     * Tabla de historia indexada por color (0 para +1, 1 para -1) y celda.
+     */
+    private final int[][] history;
+
+    /**
+     * Puntuaciones de las jugadas de cada nivel, paralelas a los buffers de jugadas.
+     */
+    private final int[][] scores;
+
+    /**
+     * Si es {@code false} sólo se adelanta la jugada de la tabla de
+     * transposición y no se aprenden killers ni historia.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Construye las tablas para un tablero de {@code cells} celdas.
+     *
+     * @param cells Número de celdas del tablero.
+     */
+    MoveOrdering(int cells) {
+        this(cells, cells + 1, new int[2][cells]);
+    }
+
+    /**
+     * Construye las tablas usando una tabla de historia compartida con otras
+     * ordenaciones. Las actualizaciones concurrentes de la historia no se
+     * sincronizan: perder alguna sólo empeora ligeramente el orden.
+     *
+     * @param cells Número de celdas del tablero.
+     * @param plies Número de niveles (distancias a la raíz) que se usarán.
+     * @param history Tabla de historia compartida ({@code [2][cells]}).
+     */
+    MoveOrdering(int cells, int plies, int[][] history) {
+        this.cells = cells;
+        this.killers = new int[plies][2];
+        this.history = history;
+        this.scores = new int[plies][cells];
+        clearKillers();
+    }
+
+    /**
+     * Devuelve el número de celdas para el que se construyeron las tablas.
+     *
+     * @return Número de celdas.
+     */
+    int getCells() {
+        return cells;
+    }
+
+    /**
+     * Devuelve la tabla de historia (que puede estar compartida).
+     *
+     * @return Tabla de historia.
+     */
+    int[][] getHistory() {
+        return history;
+    }
+
+    /**
+     * Activa o desactiva las killers y la historia.
+     *
+     * @param enabled {@code true} para usar la ordenación completa.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Prepara las tablas para una nueva búsqueda: las killers dependen de la
+     * distancia a la raíz y se descartan; la historia se conserva a medias
+     * porque las buenas celdas suelen seguir siéndolo tras dos jugadas.
+     */
+    void newSearch() {
+        clearKillers();
+        for (int[] h : history) {
+            for (int c = 0; c < cells; c++) {
+                h[c] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Asigna una puntuación a cada jugada de un nodo.
+     *
+     * @param moves Jugadas del nodo.
+     * @param count Número de jugadas válidas.
+     * @param ply Distancia a la raíz.
+     * @param ttMove Jugada de la tabla de transposición, o -1.
+     * @param color Color del jugador que mueve.
+     */
+    void score(int[] moves, int count, int ply, int ttMove, int color) {
+        int[] s = scores[ply];
+        if (!enabled) {
+            for (int i = 0; i < count; i++) {
+                s[i] = (moves[i] == ttMove) ? TT_MOVE_SCORE : 0;
+            }
+            return;
+        }
+        int k1 = killers[ply][0];
+        int k2 = killers[ply][1];
+        int[] h = history[(color == 1) ? 0 : 1];
+        for (int i = 0; i < count; i++) {
+            int mv = moves[i];
+            if (mv == ttMove) {
+                s[i] = TT_MOVE_SCORE;
+            } else if (mv == k1) {
+                s[i] = KILLER1_SCORE;
+            } else if (mv == k2) {
+                s[i] = KILLER2_SCORE;
+            } else {
+                s[i] = h[mv];
+            }
+        }
+    }
+
+    /**
+     * Lleva a la posición {@code i} la jugada con mayor puntuación de entre
+     * las posiciones {@code i..count-1} y la devuelve.
+     *
+     * @param moves Jugadas del nodo (se modifica).
+     * @param i Posición a rellenar.
+     * @param count Número de jugadas válidas.
+     * @param ply Distancia a la raíz.
+     * @return Jugada a explorar en la posición {@code i}.
+     */
+    int pickNext(int[] moves, int i, int count, int ply) {
+        int[] s = scores[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (s[j] > s[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            int mv = moves[best];
+            int sc = s[best];
+            System.arraycopy(moves, i, moves, i + 1, best - i);
+            System.arraycopy(s, i, s, i + 1, best - i);
+            moves[i] = mv;
+            s[i] = sc;
+        }
+        return moves[i];
+    }
+
+    /**
+     * Registra la jugada que ha provocado un corte alpha-beta.
+     *
+     * @param move Jugada que ha provocado el corte.
+     * @param ply Distancia a la raíz.
+     * @param color Color del jugador que la ha hecho.
+     * @param depth Profundidad restante del nodo.
+     */
+    void recordCutoff(int move, int ply, int color, int depth) {
+        if (!enabled) {
+            return;
+        }
+        int[] k = killers[ply];
+        if (k[0] != move) {
+            k[1] = k[0];
+            k[0] = move;
+        }
+        int[] h = history[(color == 1) ? 0 : 1];
+        h[move] += depth * depth;
+        if (h[move] >= HISTORY_LIMIT) {
+            for (int[] row : history) {
+                for (int c = 0; c < cells; c++) {
+                    row[c] >>= 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Vacía las jugadas killer de todos los niveles. Lo usan directamente las
+     * ordenaciones que comparten una historia, que se reduce una sola vez.
+     */
+    void clearKillers() {
+        for (int[] k : killers) {
+            k[0] = -1;
+            k[1] = -1;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Libro de aperturas: la mejor jugada de las primeras posiciones de la
+ * partida, calculada antes con búsquedas largas y guardada en un fichero
+ * binario.
+ *
+ * <p>Cada posición se guarda en forma canónica: de ella y de su giro de 180
+ * grados (que es equivalente, ver {@link ZobristHexState#rotatedKeys()}) se
+ * usa la de menor clave Zobrist, con la jugada girada si hace falta. Así las
+ * posiciones simétricas comparten entrada y el libro ocupa la mitad.</p>
+ *
+ * <p>El fichero es una tabla hash de direccionamiento abierto lista para
+ * usar: una cabecera de {@value #HEADER_BYTES} bytes y después
+ * {@code capacity} ranuras de {@value #SLOT_BYTES} bytes (clave Zobrist, 32
+ * bits altos de la clave de verificación, jugada + 1 y profundidad de la
+ * búsqueda que la calculó; una jugada 0 indica ranura vacía). La capacidad es
+ * una potencia de dos y la tabla está como mucho medio llena, por lo que una
+ * consulta lee de media una o dos ranuras a partir de
+ * {@code clave & (capacity - 1)}, y nunca más de {@value #MAX_PROBES}:
+ * {@link Builder#write} aumenta la capacidad hasta que todas las entradas se
+ * encuentran en ese número de lecturas.
+ * Al abrirlo el fichero se proyecta en memoria de sólo lectura con
+ * {@link FileChannel#map}: no se copia al heap y el sistema operativo sólo
+ * carga las páginas que se consultan.</p>
+ *
+ * <p>Las claves dependen de las tablas de {@link ZobristHexState}, que tienen
+ * semilla fija; un libro generado con otra semilla no encontraría nada.</p>
+ */
+public final class OpeningBook {
+
+    /**
+     * Identificador del formato ("HEXB").
+     */
+    private static final int MAGIC = 0x48455842;
+
+    /**
+     * Versión del formato.
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * Bytes de la cabecera: identificador, versión, tamaño del tablero,
+     * capacidad y número de entradas.
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * Bytes de cada ranura.
+     */
+    static final int SLOT_BYTES = 16;
+
+    /**
+     * Número máximo de ranuras que lee una consulta (256 bytes, cuatro líneas
+     * de caché).
+     */
+    static final int MAX_PROBES = 16;
+
+    /**
+     * Contenido del fichero proyectado en memoria.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Tamaño del tablero del libro.
+     */
+    private final int size;
+
+    /**
+     * Número de ranuras menos uno.
+     */
+    private final int mask;
+
+    /**
+     * Número de posiciones guardadas.
+     */
+    private final int entries;
+
+    /**
+     * Crea el libro sobre el contenido de un fichero ya validado.
+     *
+     * @param data Contenido del fichero.
+     */
+    private OpeningBook(ByteBuffer data) {
+        this.data = data;
+        this.size = data.getShort(6);
+        this.mask = data.getInt(8) - 1;
+        this.entries = data.getInt(12);
+    }
+
+    /**
+     * Abre un libro proyectando el fichero en memoria.
+     *
+     * @param file Fichero generado con {@link Builder#write}.
+     * @return El libro abierto.
+     * @throws IOException Si no se puede leer o no es un libro válido.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) throw new IOException("Libro de aperturas demasiado corto: " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int capacity = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+                throw new IOException("Formato de libro de aperturas no reconocido: " + file);
+            }
+            if (Integer.bitCount(capacity) != 1 || length != HEADER_BYTES + (long) capacity * SLOT_BYTES) {
+                throw new IOException("Libro de aperturas dañado: " + file);
+            }
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Busca la jugada del libro para un estado.
+     *
+     * @param gs Estado actual del juego.
+     * @return La jugada guardada, o {@code null} si el estado no está en el
+     *         libro o es de otro tamaño de tablero.
+     */
+    public Point probe(HexGameStatus gs) {
+        if (gs.getSize() != size) {
+            return null;
+        }
+        ZobristHexState z = new ZobristHexState(gs);
+        long[] rotated = z.rotatedKeys();
+        boolean rotate = Long.compareUnsigned(rotated[0], z.getKey()) < 0;
+        long key = rotate ? rotated[0] : z.getKey();
+        int check = (int) ((rotate ? rotated[1] : z.getCheckKey()) >>> 32);
+
+        for (int k = 0, slot = (int) key & mask; k < MAX_PROBES; k++, slot = (slot + 1) & mask) {
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            int move = (data.getShort(offset + 12) & 0xFFFF) - 1;
+            if (move < 0) {
+                return null;
+            }
+            if (data.getLong(offset) == key && data.getInt(offset + 8) == check) {
+                int x = move / size;
+                int y = move % size;
+                Point p = rotate ? new Point(size - 1 - x, size - 1 - y) : new Point(x, y);
+                // Una colisión de 96 bits es casi imposible, pero una jugada ilegal no se devuelve nunca.
+                return (gs.getPos(p.x, p.y) == 0) ? p : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve el tamaño de tablero del libro.
+     *
+     * @return Tamaño del tablero.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Devuelve el número de posiciones del libro.
+     *
+     * @return Número de entradas.
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * Acumula posiciones con su jugada y escribe el fichero del libro.
+     */
+    public static final class Builder {
+
+        /**
+         * Tamaño del tablero.
+         */
+        private final int size;
+
+        /**
+         * Entradas canónicas por clave Zobrist: {clave de verificación, jugada, profundidad}.
+         */
+        private final Map<Long, long[]> entries = new LinkedHashMap<>();
+
+        /**
+         * Crea un libro vacío.
+         *
+         * @param size Tamaño del tablero.
+         */
+        public Builder(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Indica si una posición (o su giro) ya está en el libro.
+         *
+         * @param gs Estado a consultar.
+         * @return {@code true} si ya tiene jugada.
+         */
+        public boolean contains(HexGameStatus gs) {
+            ZobristHexState z = new ZobristHexState(gs);
+            long[] rotated = z.rotatedKeys();
+            return entries.containsKey(z.getKey()) || entries.containsKey(rotated[0]);
+        }
+
+        /**
+         * Añade una posición con su jugada, en forma canónica. Si la posición
+         * ya estaba se sustituye.
+         *
+         * @param gs Estado del juego.
+         * @param move Mejor jugada en ese estado.
+         * @param depth Profundidad de la búsqueda que la calculó.
+         * @throws IllegalArgumentException Si el tamaño no es el del libro.
+         */
+        public void add(HexGameStatus gs, Point move, int depth) {
+            if (gs.getSize() != size) throw new IllegalArgumentException("Tamaño de tablero distinto del libro.");
+            ZobristHexState z = new ZobristHexState(gs);
+            long[] rotated = z.rotatedKeys();
+            boolean rotate = Long.compareUnsigned(rotated[0], z.getKey()) < 0;
+            long key = rotate ? rotated[0] : z.getKey();
+            long check = rotate ? rotated[1] : z.getCheckKey();
+            int x = rotate ? size - 1 - move.x : move.x;
+            int y = rotate ? size - 1 - move.y : move.y;
+            entries.put(key, new long[]{check, x * size + y, depth});
+        }
+
+        /**
+         * Devuelve el número de posiciones añadidas.
+         *
+         * @return Número de entradas.
+         */
+        public int getEntries() {
+            return entries.size();
+        }
+
+        /**
+         * Escribe el libro en un fichero, sustituyéndolo si existe. La
+         * capacidad es la menor potencia de dos que deja la tabla como mucho
+         * medio llena y con todas las entradas a menos de
+         * {@value #MAX_PROBES} ranuras de la suya.
+         *
+         * @param file Fichero de destino.
+         * @throws IOException Si no se puede escribir.
+         */
+        public void write(Path file) throws IOException {
+            int capacity = Integer.highestOneBit(Math.max(1, entries.size() * 2 - 1)) << 1;
+            ByteBuffer buffer;
+            while ((buffer = fill(capacity)) == null) {
+                capacity <<= 1;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        /**
+         * Construye el contenido del fichero con una capacidad dada.
+         *
+         * @param capacity Número de ranuras (potencia de dos).
+         * @return El contenido, o {@code null} si alguna entrada queda a
+         *         {@value #MAX_PROBES} ranuras o más de la suya.
+         */
+        private ByteBuffer fill(int capacity) {
+            int mask = capacity - 1;
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + capacity * SLOT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, VERSION);
+            buffer.putShort(6, (short) size);
+            buffer.putInt(8, capacity);
+            buffer.putInt(12, entries.size());
+            for (Map.Entry<Long, long[]> e : entries.entrySet()) {
+                long key = e.getKey();
+                long[] v = e.getValue();
+                int slot = (int) key & mask;
+                for (int k = 1; buffer.getShort(HEADER_BYTES + slot * SLOT_BYTES + 12) != 0; k++) {
+                    if (k == MAX_PROBES) {
+                        return null;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                int offset = HEADER_BYTES + slot * SLOT_BYTES;
+                buffer.putLong(offset, key);
+                buffer.putInt(offset + 8, (int) (v[0] >>> 32));
+                buffer.putShort(offset + 12, (short) (v[1] + 1));
+                buffer.putShort(offset + 14, (short) v[2]);
+            }
+            return buffer;
+        }
+    }
+}
@@ -1,402 +1,1541 @@
-/*
- * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
- * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
- */
-package edu.upc.epsevg.prop.hex.players;
-
-import edu.upc.epsevg.prop.hex.HexGameStatus;
-import edu.upc.epsevg.prop.hex.IAuto;
-import edu.upc.epsevg.prop.hex.IPlayer;
-import edu.upc.epsevg.prop.hex.PlayerMove;
-import edu.upc.epsevg.prop.hex.PlayerType;
-import static edu.upc.epsevg.prop.hex.PlayerType.getColor;
-import edu.upc.epsevg.prop.hex.SearchType;
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-
-/**
- * Esta clase representa un jugador de Hex que implementa la técnica MiniMax
- * con Iterative Deepening (IDS) y sin heurística (para los estados no terminales
- * se utiliza un valor de evaluación = 0, salvo que se use {@link #evaluateHeuristica}).
- * 
- * <p>La clase también implementa una tabla de transposición (HashMap de 
- * {@link ZobristHexState} a {@link PlayerID.TTData}) para acelerar
- * el proceso de búsqueda. Durante el cálculo del movimiento, se realiza una 
- * búsqueda progresiva (iterativa) en profundidad desde 1 hasta el tope 
- * indicado por {@code maxDepthAllowed} o hasta que se alcance un tiempo límite 
- * (timeout). En caso de llegar a la señal de timeout a mitad de una iteración, 
- * se tomará la mejor jugada obtenida en la iteración anterior.</p>
- */
-public class PlayerID implements IPlayer, IAuto {
-
-    /**
-     * Nombre que se mostrará en la interfaz de usuario.
-     */
-    private String name; 
-
-    /**
-     * Bandera para indicar cuando se ha alcanzado el timeout.
-     */
-    private boolean timeoutFlag;
-
-    /**
-     * Contador de nodos explorados durante la búsqueda.
-     */
-    private int exploredNodes;
-
-    /**
-     * Profundidad máxima de búsqueda que se está intentando en la iteración actual.
-     */
-    private int currentMaxDepth;
-
-    /**
-     * Última profundidad completa que se pudo explorar antes de que expirara el tiempo.
-     */
-    private int finalUsedDepth;
-
-    /**
-     * Profundidad máxima permitida (puede ser {@code Integer.MAX_VALUE}).
-     */
-    private int maxDepthAllowed;
-
-    /**
-     * Color del jugador actual. Se utiliza 1 o -1 en Hex.
-     */
-    private int myColor;
-
-    /**
-     * Color del oponente, opuesto al valor de {@code myColor}.
-     */
-    private int oppColor;
-
-    /**
-     * Mejor movimiento encontrado en las iteraciones de IDS.
-     */
-    private Point bestMove;
-
-    /**
-     * Tabla de transposición basada en estados Zobrist.
-     */
-    private HashMap<ZobristHexState, TTData> transpositionTable;
-
-    /**
-     * Constructor por defecto. Inicializa el nombre del jugador y la tabla de transposición.
-     * Establece la profundidad máxima en un valor muy grande.
-     */
-    public PlayerID () {
-        this.name = "HexorcistaID";
-        this.maxDepthAllowed = Integer.MAX_VALUE; 
-        this.transpositionTable = new HashMap<>();
-    }
-
-    /**
-     * Método que se invoca cuando expira el tiempo de búsqueda. 
-     * Establece la bandera {@code timeoutFlag} a {@code true}.
-     */
-    @Override
-    public void timeout() {
-        timeoutFlag = true;
-    }
-
-    /**
-     * Calcula la jugada que debe realizar el jugador en el estado actual del juego.
-     * 
-     * <p>Se realiza un Iterative Deepening Search (IDS), es decir, se llama varias veces 
-     * a MiniMax (con poda alpha-beta) aumentando la profundidad de uno en uno, hasta 
-     * alcanzar el límite {@link #maxDepthAllowed} o hasta que se produzca el timeout. 
-     * Si el timeout ocurre en medio de una profundidad dada, se toma la mejor jugada 
-     * obtenida en la profundidad anterior.</p>
-     * 
-     * @param gs Estado actual del juego Hex.
-     * @return Un objeto {@link PlayerMove} que contiene la mejor jugada encontrada, 
-     *         así como estadísticas sobre la exploración (nodos explorados y profundidad usada).
-     */
-    @Override
-    public PlayerMove move(HexGameStatus gs) {
-        // Inicialización de variables para la nueva búsqueda.
-        exploredNodes = 0;
-        currentMaxDepth = 1;
-        finalUsedDepth = 0;
-        timeoutFlag = false;
-        bestMove = null;
-
-        // Asignar colores (jugador actual y oponente).
-        myColor = gs.getCurrentPlayerColor(); // 1 ó -1
-        oppColor = -myColor;
-
-        // Construir un estado Zobrist a partir del estado de juego.
-        ZobristHexState initialState = new ZobristHexState(gs);
-
-        // Iterative Deepening.
-        while (!timeoutFlag && currentMaxDepth <= maxDepthAllowed) {
-            Point moveCandidate = runMiniMax(initialState, currentMaxDepth);
-            if (!timeoutFlag && moveCandidate != null) {
-                bestMove = moveCandidate;
-                finalUsedDepth = currentMaxDepth;
-            }
-            currentMaxDepth++;
-        }
-
-        // Si no se encontró ninguna jugada (muy poco probable), se elige la primera vacía como respaldo.
-        if (bestMove == null) {
-            List<Point> moves = getAllMoves(gs);
-            if (!moves.isEmpty()) {
-                bestMove = moves.get(0);
-            }
-        }
-
-        // Devolver la jugada junto con estadísticas de búsqueda.
-        return new PlayerMove(bestMove, exploredNodes, finalUsedDepth, SearchType.MINIMAX);
-    }
-
-    /**
-     * Ejecuta el algoritmo MiniMax con poda alpha-beta hasta la profundidad indicada.
-     * 
-     * @param zState Estado inicial de la búsqueda (con hash Zobrist).
-     * @param depth Profundidad máxima a la cual se realizará la búsqueda en esta iteración.
-     * @return El movimiento (coordenadas x,y) que se considera óptimo para el jugador MAX.
-     */
-    private Point runMiniMax(ZobristHexState zState, int depth) {
-        double alpha = Double.NEGATIVE_INFINITY;
-        double beta  = Double.POSITIVE_INFINITY;
-        double bestVal = Double.NEGATIVE_INFINITY;
-        Point chosenMove = null;
-
-        List<Point> moves = getAllMoves(zState);
-
-        // Para cada movimiento posible, se realiza un paso de MiniMax (jugador MIN a continuación).
-        for (Point mv : moves) {
-            if (timeoutFlag) break;  // Si hay timeout, se corta la búsqueda.
-
-            ZobristHexState nextState = new ZobristHexState(zState);
-            nextState.placeStone(mv);
-
-            double value = minValue(nextState, depth - 1, alpha, beta);
-            if (value > bestVal) {
-                bestVal = value;
-                chosenMove = mv;
-            }
-            alpha = Math.max(alpha, bestVal);
-            if (alpha >= beta) {
-                // Poda alpha-beta.
-                break;
-            }
-        }
-        return chosenMove;
-    }
-
-    /**
-     * Función para el jugador MIN dentro de MiniMax con poda alpha-beta.
-     * 
-     * @param zState Estado actual con hash Zobrist.
-     * @param depth Profundidad restante de la búsqueda.
-     * @param alpha Límite inferior de la poda alpha-beta.
-     * @param beta Límite superior de la poda alpha-beta.
-     * @return El valor mínimo que el jugador MIN puede forzar desde este estado.
-     */
-    private double minValue(ZobristHexState zState, int depth, double alpha, double beta) {
-        if (timeoutFlag) {
-            return 0; // Regreso inmediato en caso de timeout.
-        }
-        // Comprobar si es un estado terminal.
-        if (zState.isGameOver()) {
-            return terminalEvaluation(zState);
-        }
-        // Si se llega a la profundidad límite, se usa la heurística (por defecto 0, o la definida).
-        if (depth == 0) {
-            exploredNodes++;
-            return evaluateHeuristica(zState);
-        }
-
-        // Consultar la tabla de transposición.
-        TTData entry = transpositionTable.get(zState);
-        if (entry != null && entry.depth >= (currentMaxDepth - depth)) {
-            // Valor almacenado que puede reutilizarse.
-            return entry.value;
-        }
-
-        double value = Double.POSITIVE_INFINITY;
-        List<Point> moves = getAllMoves(zState);
-
-        for (Point mv : moves) {
-            if (timeoutFlag) {
-                break;
-            }
-            ZobristHexState aux = new ZobristHexState(zState);
-            aux.placeStone(mv);
-            double tmp = maxValue(aux, depth - 1, alpha, beta);
-            value = Math.min(value, tmp);
-
-            beta = Math.min(beta, value);
-            if (beta <= alpha) {
-                // Poda alpha-beta.
-                break;
-            }
-        }
-
-        // Almacenar en la tabla de transposición.
-        transpositionTable.put(zState, new TTData(value, currentMaxDepth - depth));
-        return value;
-    }
-
-    /**
-     * Función para el jugador MAX dentro de MiniMax con poda alpha-beta.
-     * 
-     * @param zState Estado actual con hash Zobrist.
-     * @param depth Profundidad restante de la búsqueda.
-     * @param alpha Límite inferior de la poda alpha-beta.
-     * @param beta Límite superior de la poda alpha-beta.
-     * @return El valor máximo que el jugador MAX puede forzar desde este estado.
-     */
-    private double maxValue(ZobristHexState zState, int depth, double alpha, double beta) {
-        if (timeoutFlag) {
-            return 0;
-        }
-        // Comprobar si es un estado terminal.
-        if (zState.isGameOver()) {
-            return terminalEvaluation(zState);
-        }
-        // Profundidad límite.
-        if (depth == 0) {
-            exploredNodes++;
-            return evaluateHeuristica(zState);
-        }
-
-        // Revisar la tabla de transposición.
-        TTData entry = transpositionTable.get(zState);
-        if (entry != null && entry.depth >= (currentMaxDepth - depth)) {
-            return entry.value;
-        }
-
-        double value = Double.NEGATIVE_INFINITY;
-        List<Point> moves = getAllMoves(zState);
-
-        for (Point mv : moves) {
-            if (timeoutFlag) {
-                break;
-            }
-            ZobristHexState aux = new ZobristHexState(zState);
-            aux.placeStone(mv);
-            double tmp = minValue(aux, depth - 1, alpha, beta);
-            value = Math.max(value, tmp);
-
-            alpha = Math.max(alpha, value);
-            if (alpha >= beta) {
-                // Poda alpha-beta.
-                break;
-            }
-        }
-
-        // Almacenar en la tabla de transposición.
-        transpositionTable.put(zState, new TTData(value, currentMaxDepth - depth));
-        return value;
-    }
-
-    /**
-     * Evalúa el resultado de un estado terminal:
-     * <ul>
-     *   <li>+∞ si el ganador es {@code myColor}.</li>
-     *   <li>-∞ si el ganador es {@code oppColor}.</li>
-     *   <li>0 en caso de que no haya un ganador válido (muy raro en Hex).</li>
-     * </ul>
-     * 
-     * @param zState Estado del juego (terminal).
-     * @return Un valor representativo de la utilidad en este estado.
-     */
-    private double terminalEvaluation(ZobristHexState zState) {
-        int winner = zState.getWinnerColor();
-        if (winner == myColor) {
-            return Double.POSITIVE_INFINITY;
-        } else if (winner == oppColor) {
-            return Double.NEGATIVE_INFINITY;
-        }
-        return 0;
-    }
-
-    /**
-     * Obtiene todos los movimientos disponibles (celdas libres) a partir de un estado Zobrist.
-     * 
-     * @param zState Estado Zobrist que contiene un {@link HexGameStatus} interno.
-     * @return Lista de puntos disponibles para colocar la siguiente piedra.
-     */
-    private List<Point> getAllMoves(ZobristHexState zState) {
-        HexGameStatus st = zState.getInternalStatus();
-        return getAllMoves(st);
-    }
-
-    /**
-     * Obtiene todos los movimientos disponibles (celdas libres) en un estado {@link HexGameStatus}.
-     * 
-     * @param st Estado del juego.
-     * @return Lista de puntos disponibles (celdas vacías).
-     */
-    private List<Point> getAllMoves(HexGameStatus st) {
-        List<Point> res = new ArrayList<>();
-        int n = st.getSize();
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (st.getPos(i, j) == 0) {
-                    res.add(new Point(i, j));
-                }
-            }
-        }
-        return res;
-    }
-    
-    /**
-     * Evalúa de manera heurística un estado de juego no terminal.
-     * 
-     * <p>Actualmente se emplea un posible cálculo basado en la diferencia de distancias
-     * mediante Dijkstra, para aproximar la cercanía de la conexión de cada jugador.
-     * 
-     * @param s Estado de juego Zobrist.
-     * @return Un valor entero que representa la evaluación heurística.
-     */
-    private int evaluateHeuristica(ZobristHexState s) {
-        // Esta llamada asume que la clase HeuristicaID tiene un método runDijkstra
-        // que retorna un objeto con la distancia más corta (shortestPath).
-        int myDistance = HeuristicaID.runDijkstra(s, myColor).shortestPath;
-        int opponentDistance = HeuristicaID.runDijkstra(s, oppColor).shortestPath;
-
-        int connectivityScore = (opponentDistance - myDistance) * 10;
-        return -myDistance + connectivityScore;
-    } 
-
-    /**
-     * Devuelve el nombre del jugador que será mostrado en la interfaz.
-     * 
-     * @return Cadena con el nombre del jugador.
-     */
-    @Override
-    public String getName() {
-        return name;
-    }
-
-    /**
-     * Clase interna para almacenar datos de la tabla de transposición,
-     * incluyendo el valor calculado y la profundidad a la que se obtuvo.
-     */
-    private static class TTData {
-        /**
-         * Valor de evaluación almacenado.
-         */
-        double value;
-        /**
-         * Profundidad a la que se calculó este valor.
-         */
-        int depth;
-
-        /**
-         * Constructor para encapsular el valor y la profundidad.
-         * 
-         * @param v Valor de evaluación.
-         * @param d Profundidad en la que se calculó.
-         */
-        TTData(double v, int d) {
-            value = v;
-            depth = d;
-        }
-    }
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import edu.upc.epsevg.prop.hex.IAuto;
+import edu.upc.epsevg.prop.hex.IPlayer;
+import edu.upc.epsevg.prop.hex.PlayerMove;
+import edu.upc.epsevg.prop.hex.PlayerType;
+import static edu.upc.epsevg.prop.hex.PlayerType.getColor;
+import edu.upc.epsevg.prop.hex.SearchType;
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Esta clase representa un jugador de Hex que implementa la técnica MiniMax
+ * con Iterative Deepening (IDS) y sin heurística (para los estados no terminales
+ * se utiliza un valor de evaluación = 0, salvo que se use {@link #evaluateHeuristica}).
+ * 
+ * <p>La clase también implementa una tabla de transposición de tamaño fijo
+ * ({@link TranspositionTable}) indexada por la clave Zobrist de cada estado
+ * para acelerar el proceso de búsqueda. Durante el cálculo del movimiento, se realiza una 
+ * búsqueda progresiva (iterativa) en profundidad desde 1 hasta el tope 
+ * indicado por {@code maxDepthAllowed} o hasta que se alcance un tiempo límite 
+ * (timeout). En caso de llegar a la señal de timeout a mitad de una iteración, 
+ * se tomará la mejor jugada obtenida en la iteración anterior.</p>
+ * 
+ * <p>La tabla se conserva entre movimientos: sus entradas guardan la 
+ * profundidad restante y el valor para el jugador que mueve, por lo que los 
+ * subárboles ya buscados en el movimiento anterior se reutilizan y las 
+ * primeras iteraciones del siguiente apenas cuestan.</p>
+ * 
+ * <p>Las jugadas de cada nodo se ordenan con {@link MoveOrdering}: primero la
+ * jugada de la tabla de transposición, luego las killer del nivel y después
+ * el resto según la tabla de historia.</p>
+ * 
+ * <p>Con {@link Search#PVS} cada iteración usa Principal Variation Search en 
+ * lugar de la pareja {@code minValue}/{@code maxValue}, compartiendo la misma 
+ * tabla de transposición, ordenación y bucle de Iterative Deepening.</p>
+ * 
+ * <p>Con {@link #setThreads} mayor que 1 se usa Lazy SMP: mientras el hilo 
+ * principal hace su Iterative Deepening, {@code n - 1} ayudantes (otras 
+ * instancias de esta clase, cada una con su tablero y buffers) buscan la misma 
+ * raíz compartiendo la tabla de transposición. Los ayudantes impares empiezan 
+ * una profundidad por delante para no repetir el mismo árbol. Sus resultados 
+ * sólo llegan al principal a través de la tabla; la jugada devuelta es 
+ * siempre la del hilo principal.</p>
+ * 
+ * <p>Con {@link Search#YBWC} el paralelismo es dentro del árbol: los hermanos 
+ * menores de cada nodo se reparten entre los hilos una vez buscado el primero.</p>
+ * 
+ * <p>Con {@link #setTimeManager} cada movimiento se ajusta a un presupuesto 
+ * de tiempo en lugar de buscar hasta el timeout ({@link TimeManager}).</p>
+ * 
+ * <p>Con {@link #setPondering} el jugador sigue pensando durante el turno del 
+ * rival sobre la respuesta que espera de él (ver {@link #startPondering}).</p>
+ * 
+ * <p>Con un libro de aperturas ({@link OpeningBook}, se abre en el 
+ * constructor) las posiciones que contiene se responden al instante, sin 
+ * buscar.</p>
+ */
+public class PlayerID implements IPlayer, IAuto {
+
+    /**
+     * Algoritmo de búsqueda usado en cada iteración del Iterative Deepening.
+     */
+    public enum Search {
+        /**
+         * MiniMax con poda alpha-beta y ventana completa ({@code minValue}/{@code maxValue}).
+         */
+        ALPHA_BETA,
+        /**
+         * Principal Variation Search (NegaScout) en forma negamax: la primera
+         * jugada de cada nodo se busca con la ventana completa y el resto con
+         * una ventana nula, repitiendo la búsqueda sólo si la supera.
+         */
+        PVS,
+        /**
+         * Alpha-beta paralelo <i>Young Brothers Wait</i> sobre un 
+         * {@code ForkJoinPool} de {@link #setThreads} hilos ({@link YbwcSearch}).
+         */
+        YBWC
+    }
+
+    /**
+     * Tamaño por defecto de la tabla de transposición, en megabytes.
+     */
+    private static final int DEFAULT_TT_SIZE_MB = 64;
+
+    /**
+     * Valor de un estado terminal ganado por {@code myColor}. Es mayor que 
+     * cualquier valor heurístico posible.
+     */
+    static final int WIN_SCORE = 1_000_000;
+
+    /**
+     * Cota usada como infinito en la ventana alpha-beta.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * Semiamplitud inicial de la ventana de aspiración (dos pasos de distancia 
+     * en la heurística).
+     */
+    private static final int ASPIRATION_WINDOW = 20;
+
+    /**
+     * Semiamplitud a partir de la cual se abandona la aspiración y se busca 
+     * con la ventana completa.
+     */
+    private static final int ASPIRATION_LIMIT = 2000;
+
+    /**
+     * Nombre que se mostrará en la interfaz de usuario.
+     */
+    private String name; 
+
+    /**
+     * Bandera para indicar cuando se ha alcanzado el timeout. La escribe otro 
+     * hilo (el que llama a {@link #timeout()}).
+     */
+    private volatile boolean timeoutFlag;
+
+    /**
+     * Contador de nodos explorados durante la búsqueda.
+     */
+    private int exploredNodes;
+
+    /**
+     * Profundidad máxima de búsqueda que se está intentando en la iteración actual.
+     */
+    private int currentMaxDepth;
+
+    /**
+     * Última profundidad completa que se pudo explorar antes de que expirara el tiempo.
+     */
+    private int finalUsedDepth;
+
+    /**
+     * Profundidad máxima permitida (puede ser {@code Integer.MAX_VALUE}).
+     */
+    private int maxDepthAllowed;
+
+    /**
+     * Color del jugador actual. Se utiliza 1 o -1 en Hex.
+     */
+    private int myColor;
+
+    /**
+     * Color del oponente, opuesto al valor de {@code myColor}.
+     */
+    private int oppColor;
+
+    /**
+     * Algoritmo de búsqueda de cada iteración.
+     */
+    private final Search search;
+
+    /**
+     * Número de re-búsquedas con ventana completa hechas por PVS.
+     */
+    private long researches;
+
+    /**
+     * Si las iteraciones de IDS usan ventanas de aspiración.
+     */
+    private boolean aspiration = true;
+
+    /**
+     * Valor de la raíz devuelto por la última llamada a {@link #runMiniMax} o {@link #runPVS}.
+     */
+    private int rootValue;
+
+    /**
+     * Número de búsquedas de raíz repetidas por salirse de la ventana de aspiración.
+     */
+    private int aspirationResearches;
+
+    /**
+     * Número de hilos de búsqueda (el principal más los ayudantes).
+     */
+    private int threads = 1;
+
+    /**
+     * Ayudantes de Lazy SMP, que comparten la tabla de transposición.
+     */
+    private PlayerID[] helpers = new PlayerID[0];
+
+    /**
+     * Hilos en los que se ejecutan los ayudantes.
+     */
+    private ExecutorService helperPool;
+
+    /**
+     * Búsqueda paralela YBWC (sólo con {@link Search#YBWC}).
+     */
+    private YbwcSearch ybwc;
+
+    /**
+     * Si se piensa durante el turno del rival.
+     */
+    private boolean pondering = false;
+
+    /**
+     * Hilo en el que se busca durante el turno del rival.
+     */
+    private ExecutorService ponderPool;
+
+    /**
+     * Búsqueda en curso durante el turno del rival, o {@code null}.
+     */
+    private Future<?> ponderTask;
+
+    /**
+     * Clave Zobrist de la posición que busca {@link #ponderTask}.
+     */
+    private long ponderKey;
+
+    /**
+     * Clave de verificación de la posición que busca {@link #ponderTask}.
+     */
+    private long ponderCheck;
+
+    /**
+     * Gestor del tiempo de cada movimiento, o {@code null} para buscar hasta el timeout.
+     */
+    private TimeManager timeManager;
+
+    /**
+     * Gestor que decide las iteraciones de la búsqueda en curso. Sólo es 
+     * distinto de {@code null} dentro de {@link #move}: mientras se piensa en 
+     * el turno del rival el tiempo no cuenta.
+     */
+    private volatile TimeManager activeTimeManager;
+
+    /**
+     * Temporizador que interrumpe la búsqueda al llegar al límite duro del 
+     * {@link TimeManager}.
+     */
+    private ScheduledExecutorService deadlineTimer;
+
+    /**
+     * Testigo del {@link #move} en curso, o {@code null} fuera de él. Un aviso 
+     * de parada ({@link #timeout()} o el temporizador) sólo detiene la búsqueda 
+     * si llega mientras sigue en curso el movimiento para el que se dio. 
+     * Protegido por {@link #stopLock}.
+     */
+    private Object currentMove;
+
+    /**
+     * Cerrojo que hace atómicas la comprobación de {@link #currentMove} y la 
+     * escritura de las banderas de timeout.
+     */
+    private final Object stopLock = new Object();
+
+    /**
+     * Libro de aperturas, o {@code null} si no se usa.
+     */
+    private OpeningBook openingBook;
+
+    /**
+     * Mejor movimiento encontrado en las iteraciones de IDS.
+     */
+    private Point bestMove;
+
+    /**
+     * Tabla de transposición indexada por la clave Zobrist de cada estado.
+     */
+    private TranspositionTable transpositionTable;
+
+    /**
+     * Tablero interno sobre el que se hacen y deshacen las jugadas durante la búsqueda.
+     */
+    private HexBoard board;
+
+    /**
+     * Buffers de jugadas, uno por cada nivel de profundidad, para generar los 
+     * movimientos sin reservar memoria en cada nodo.
+     */
+    private int[][] moveBuffers;
+
+    /**
+     * Evaluador reutilizable para la heurística de las hojas, sin reservas de memoria.
+     */
+    private HexEvaluator evaluator;
+
+    /**
+     * Ordenación de jugadas (jugada de la tabla, killers e historia).
+     */
+    private MoveOrdering ordering;
+
+    /**
+     * Si se usan killers e historia para ordenar las jugadas.
+     */
+    private boolean moveOrdering = true;
+
+    /**
+     * Número de cortes alpha-beta producidos en la búsqueda actual.
+     */
+    private long cutoffs;
+
+    /**
+     * Número de cortes producidos por la primera jugada explorada del nodo.
+     */
+    private long firstMoveCutoffs;
+
+    /**
+     * Estadísticas de la última llamada a {@link #move}.
+     */
+    private SearchStats lastStats;
+
+    /**
+     * Constructor por defecto. Inicializa el nombre del jugador y una tabla de 
+     * transposición del tamaño por defecto.
+     * Establece la profundidad máxima en un valor muy grande.
+     */
+    public PlayerID () {
+        this(DEFAULT_TT_SIZE_MB);
+    }
+
+    /**
+     * Constructor que reserva una tabla de transposición del tamaño indicado.
+     * La memoria de la tabla se reserva aquí, fuera del heap, y no crece 
+     * durante la partida.
+     * 
+     * @param ttSizeMB Tamaño de la tabla de transposición en megabytes.
+     */
+    public PlayerID (int ttSizeMB) {
+        this(ttSizeMB, Search.ALPHA_BETA);
+    }
+
+    /**
+     * Constructor que permite elegir el algoritmo de búsqueda.
+     * 
+     * @param ttSizeMB Tamaño de la tabla de transposición en megabytes.
+     * @param search Algoritmo usado en cada iteración del Iterative Deepening.
+     */
+    public PlayerID (int ttSizeMB, Search search) {
+        this(new TranspositionTable(ttSizeMB), search);
+    }
+
+    /**
+     * Constructor que además abre un libro de aperturas. El fichero se 
+     * proyecta en memoria aquí y no ocupa heap; las posiciones del libro se 
+     * responden sin buscar.
+     * 
+     * @param ttSizeMB Tamaño de la tabla de transposición en megabytes.
+     * @param search Algoritmo usado en cada iteración del Iterative Deepening.
+     * @param openingBook Fichero generado con {@code OpeningBookBuilder}.
+     * @throws IOException Si el libro no se puede abrir.
+     */
+    public PlayerID (int ttSizeMB, Search search, Path openingBook) throws IOException {
+        this(ttSizeMB, search);
+        this.openingBook = OpeningBook.open(openingBook);
+    }
+
+    /**
+     * Constructor que usa una tabla de transposición ya creada, por ejemplo 
+     * para que varios jugadores (o las partidas sucesivas de 
+     * {@code HeadlessGame}) compartan una única reserva de memoria. La tabla 
+     * admite accesos concurrentes; cada {@link #move} empieza una nueva 
+     * generación, por lo que los jugadores que la comparten no deben buscar a 
+     * la vez en posiciones distintas. Pueden jugar con colores distintos: los 
+     * valores guardados son desde el punto de vista del jugador que mueve y 
+     * tanto la evaluación de las hojas ({@link #evaluate}) como la de los 
+     * estados terminales son antisimétricas.
+     * 
+     * @param table Tabla de transposición compartida.
+     * @param search Algoritmo usado en cada iteración del Iterative Deepening.
+     */
+    public PlayerID (TranspositionTable table, Search search) {
+        this.name = (search == Search.ALPHA_BETA) ? "HexorcistaID" : "Hexorcista" + search;
+        this.search = search;
+        this.maxDepthAllowed = Integer.MAX_VALUE; 
+        this.transpositionTable = table;
+    }
+
+    /**
+     * Devuelve la tabla de transposición del jugador, para compartirla con 
+     * otros jugadores.
+     * 
+     * @return Tabla de transposición.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Fija el número de hilos de búsqueda. Con 1 (valor por defecto) la 
+     * búsqueda es secuencial; con más se usa Lazy SMP, salvo con 
+     * {@link Search#YBWC}, que reparte el árbol entre ese número de hilos.
+     * 
+     * @param threads Número de hilos, incluido el principal.
+     * @throws IllegalArgumentException Si es menor que 1.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("El número de hilos debe ser >= 1.");
+        if (threads == this.threads) {
+            return;
+        }
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+            helperPool = null;
+        }
+        this.threads = threads;
+        if (search == Search.YBWC) {
+            // El pool de YBWC se crea con el nuevo número de hilos en la próxima búsqueda.
+            if (ybwc != null) {
+                ybwc.shutdown();
+                ybwc = null;
+            }
+            return;
+        }
+        this.helpers = new PlayerID[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new PlayerID(transpositionTable, search);
+        }
+        if (helpers.length > 0) {
+            helperPool = Executors.newFixedThreadPool(helpers.length, r -> {
+                Thread t = new Thread(r, "PlayerID-helper");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Limita la profundidad máxima del Iterative Deepening. Sirve para comparar
+     * búsquedas a igual profundidad.
+     * 
+     * @param maxDepth Profundidad máxima ({@code Integer.MAX_VALUE} sin límite).
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepthAllowed = maxDepth;
+    }
+
+    /**
+     * Activa o desactiva la ordenación por killers e historia. Desactivada, 
+     * sólo se adelanta la jugada de la tabla de transposición y el resto se 
+     * explora en orden de filas.
+     * 
+     * @param enabled {@code true} para ordenar las jugadas (valor por defecto).
+     */
+    public void setMoveOrdering(boolean enabled) {
+        this.moveOrdering = enabled;
+    }
+
+    /**
+     * Activa o desactiva las ventanas de aspiración. Desactivadas, todas las 
+     * iteraciones se buscan con la ventana completa.
+     * 
+     * @param enabled {@code true} para usar aspiración (valor por defecto).
+     */
+    public void setAspiration(boolean enabled) {
+        this.aspiration = enabled;
+    }
+
+    /**
+     * Fija el gestor de tiempo. Con gestor, cada movimiento termina cuando la 
+     * siguiente iteración no cabría en su presupuesto (o antes, si la mejor 
+     * jugada es estable) y no hace falta esperar al timeout del juego, que 
+     * sigue respetándose. Sin gestor (valor por defecto) se busca hasta el 
+     * timeout.
+     * 
+     * @param timeManager Gestor de tiempo, o {@code null}.
+     */
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+    }
+
+    /**
+     * Activa o desactiva el pensamiento durante el turno del rival. Al 
+     * desactivarlo se detiene la búsqueda de fondo que hubiera en curso.
+     * 
+     * <p>El hilo de fondo compite por la CPU con el rival, de modo que sólo 
+     * aporta tiempo de búsqueda real si la máquina tiene núcleos libres.</p>
+     * 
+     * @param enabled {@code true} para pensar en el turno del rival.
+     */
+    public void setPondering(boolean enabled) {
+        this.pondering = enabled;
+        if (!enabled) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * Detiene la búsqueda del turno del rival, si la hay, y espera a que 
+     * termine. Sirve para liberar la CPU al acabar una partida. No debe 
+     * llamarse mientras hay un {@link #move} en curso.
+     */
+    public void stopPondering() {
+        if (ponderTask == null) {
+            return;
+        }
+        timeoutFlag = true;
+        awaitPondering();
+    }
+
+    /**
+     * Método que se invoca cuando expira el tiempo de búsqueda. 
+     * Establece la bandera {@code timeoutFlag} a {@code true}.
+     * 
+     * <p>Sólo tiene efecto durante un {@link #move}: un aviso que llega tarde, 
+     * cuando el movimiento ya ha terminado, no detiene la búsqueda del turno 
+     * del rival ni deja la bandera activada para el movimiento siguiente.</p>
+     */
+    @Override
+    public void timeout() {
+        synchronized (stopLock) {
+            if (currentMove != null) {
+                stopSearch();
+            }
+        }
+    }
+
+    /**
+     * Detiene la búsqueda de un movimiento si todavía está en curso. Es lo 
+     * que ejecuta el temporizador del límite duro, que puede dispararse justo 
+     * cuando el movimiento termina por su cuenta.
+     * 
+     * @param move Testigo del movimiento para el que se programó.
+     */
+    private void expire(Object move) {
+        synchronized (stopLock) {
+            if (move == currentMove) {
+                stopSearch();
+            }
+        }
+    }
+
+    /**
+     * Activa las banderas de timeout del jugador y de sus ayudantes.
+     */
+    private void stopSearch() {
+        timeoutFlag = true;
+        for (PlayerID helper : helpers) {
+            helper.timeoutFlag = true;
+        }
+    }
+
+    /**
+     * Indica si se ha recibido el timeout. Lo consultan las tareas de 
+     * {@link YbwcSearch}.
+     * 
+     * @return {@code true} si la búsqueda debe terminar.
+     */
+    boolean isTimedOut() {
+        return timeoutFlag;
+    }
+
+    /**
+     * Calcula la jugada que debe realizar el jugador en el estado actual del juego.
+     * 
+     * <p>Se realiza un Iterative Deepening Search (IDS), es decir, se llama varias veces 
+     * a MiniMax (con poda alpha-beta) aumentando la profundidad de uno en uno, hasta 
+     * alcanzar el límite {@link #maxDepthAllowed} o hasta que se produzca el timeout. 
+     * Si el timeout ocurre en medio de una profundidad dada, se toma la mejor jugada 
+     * obtenida en la profundidad anterior. También se termina cuando el valor de la 
+     * raíz es una victoria o derrota demostrada, cuando la profundidad alcanza el 
+     * final de la partida o cuando el {@link TimeManager} lo decide.</p>
+     * 
+     * <p>Si se estaba pensando en el turno del rival y {@code gs} es la 
+     * posición prevista, no se empieza de nuevo: se deja continuar esa 
+     * búsqueda, que ya lleva ventaja, hasta el timeout. Si es otra posición, 
+     * se detiene y se busca {@code gs} aprovechando lo que haya dejado en la 
+     * tabla de transposición.</p>
+     * 
+     * <p>Si hay libro de aperturas y contiene {@code gs}, se devuelve su jugada 
+     * sin buscar (y sin pensar después en el turno del rival).</p>
+     * 
+     * @param gs Estado actual del juego Hex.
+     * @return Un objeto {@link PlayerMove} que contiene la mejor jugada encontrada, 
+     *         así como estadísticas sobre la exploración (nodos explorados y profundidad usada).
+     */
+    @Override
+    public PlayerMove move(HexGameStatus gs) {
+        if (openingBook != null) {
+            Point book = openingBook.probe(gs);
+            if (book != null) {
+                stopPondering();
+                lastStats = new SearchStats();
+                lastStats.bookHit = true;
+                lastStats.threads = threads;
+                return new PlayerMove(book, 0, 0, SearchType.MINIMAX);
+            }
+        }
+        boolean ponderHit = false;
+        if (ponderTask != null) {
+            ZobristHexState z = new ZobristHexState(gs);
+            ponderHit = z.getKey() == ponderKey && z.getCheckKey() == ponderCheck;
+            if (!ponderHit) {
+                stopPondering();
+            }
+        }
+        if (!ponderHit) {
+            timeoutFlag = false;
+            transpositionTable.newSearch();
+        }
+        transpositionTable.resetStats();
+        long startTime = System.currentTimeMillis();
+        Object token = new Object();
+        synchronized (stopLock) {
+            currentMove = token;
+        }
+        ScheduledFuture<?> deadline = null;
+        if (timeManager != null) {
+            timeManager.startMove(gs);
+            if (deadlineTimer == null) {
+                deadlineTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "PlayerID-deadline");
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            deadline = deadlineTimer.schedule(() -> expire(token), timeManager.getHardMillis(), TimeUnit.MILLISECONDS);
+            activeTimeManager = timeManager;
+        }
+
+        // Lanzar los ayudantes de Lazy SMP sobre la misma raíz.
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < helpers.length; i++) {
+            PlayerID helper = helpers[i];
+            int firstDepth = 1 + ((i + 1) & 1);
+            helper.timeoutFlag = false;
+            helper.maxDepthAllowed = maxDepthAllowed;
+            helper.moveOrdering = moveOrdering;
+            helper.aspiration = aspiration;
+            running.add(helperPool.submit(() -> helper.search(gs, firstDepth)));
+        }
+
+        if (ponderHit) {
+            // La búsqueda del turno del rival ya es la de esta posición.
+            awaitPondering();
+        } else {
+            search(gs, 1);
+        }
+
+        // A partir de aquí ningún aviso de parada de este movimiento puede tocar las banderas:
+        // o ya se ha aplicado entero, o verá que el movimiento ha terminado.
+        synchronized (stopLock) {
+            currentMove = null;
+        }
+        activeTimeManager = null;
+        if (deadline != null) {
+            deadline.cancel(false);
+            timeManager.endMove();
+        }
+
+        // Parar los ayudantes y esperar a que terminen antes de devolver la jugada.
+        long totalNodes = exploredNodes;
+        for (PlayerID helper : helpers) {
+            helper.timeoutFlag = true;
+        }
+        for (int i = 0; i < running.size(); i++) {
+            try {
+                running.get(i).get();
+            } catch (Exception ex) {
+                // Un ayudante que falla no invalida la jugada del hilo principal.
+            }
+            totalNodes += helpers[i].exploredNodes;
+        }
+
+        // Si no se encontró ninguna jugada (muy poco probable), se elige la primera vacía como respaldo.
+        if (bestMove == null) {
+            List<Point> moves = getAllMoves(gs);
+            if (!moves.isEmpty()) {
+                bestMove = moves.get(0);
+            }
+        }
+
+        lastStats = new SearchStats();
+        lastStats.nodes = exploredNodes;
+        lastStats.depth = finalUsedDepth;
+        lastStats.timeMillis = System.currentTimeMillis() - startTime;
+        lastStats.ttProbes = transpositionTable.getProbes();
+        lastStats.ttHits = transpositionTable.getHits();
+        lastStats.ttCollisions = transpositionTable.getCollisions();
+        lastStats.cutoffs = cutoffs;
+        lastStats.firstMoveCutoffs = firstMoveCutoffs;
+        lastStats.researches = researches;
+        lastStats.aspirationResearches = aspirationResearches;
+        lastStats.threads = threads;
+        lastStats.splits = (ybwc != null) ? ybwc.getSplits() : 0;
+        lastStats.totalNodes = totalNodes;
+        lastStats.nodesPerSecond = totalNodes * 1000 / Math.max(1, lastStats.timeMillis);
+        lastStats.ponderHit = ponderHit;
+
+        Point chosen = bestMove;
+        int usedDepth = finalUsedDepth;
+        long nodes = exploredNodes;
+        if (pondering && chosen != null) {
+            startPondering(gs, chosen);
+        }
+
+        // Devolver la jugada junto con estadísticas de búsqueda.
+        return new PlayerMove(chosen, nodes, usedDepth, SearchType.MINIMAX);
+    }
+
+    /**
+     * Empieza a pensar en el turno del rival. Juega la jugada elegida y, como 
+     * respuesta prevista del rival, la mejor jugada que la tabla de 
+     * transposición guarda para la posición resultante (la continuación de la 
+     * variante principal). La posición tras ambas se busca en segundo plano 
+     * con el mismo Iterative Deepening hasta la siguiente llamada a 
+     * {@link #move}. Si no hay respuesta prevista o la partida termina antes, 
+     * no se piensa.
+     * 
+     * @param gs Estado sobre el que se ha elegido la jugada (no se modifica).
+     * @param chosen Jugada elegida.
+     */
+    private void startPondering(HexGameStatus gs, Point chosen) {
+        int size = gs.getSize();
+        HexBoard next = new HexBoard(board);
+        next.play(chosen.x * size + chosen.y);
+        if (next.isGameOver()) {
+            return;
+        }
+        long entry = transpositionTable.probe(next.getKey(), next.getCheckKey());
+        int reply = (entry != TranspositionTable.MISS) ? TranspositionTable.moveOf(entry) : -1;
+        if (reply < 0 || next.getCell(reply) != 0) {
+            return;
+        }
+        next.play(reply);
+        if (next.isGameOver()) {
+            return;
+        }
+
+        HexGameStatus predicted = new HexGameStatus(gs);
+        predicted.placeStone(chosen);
+        predicted.placeStone(new Point(reply / size, reply % size));
+        ponderKey = next.getKey();
+        ponderCheck = next.getCheckKey();
+
+        if (ponderPool == null) {
+            ponderPool = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "PlayerID-ponder");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        timeoutFlag = false;
+        transpositionTable.newSearch();
+        ponderTask = ponderPool.submit(() -> search(predicted, 1));
+    }
+
+    /**
+     * Espera a que termine la búsqueda del turno del rival, que debe haberse 
+     * detenido o estar a punto de hacerlo.
+     */
+    private void awaitPondering() {
+        try {
+            ponderTask.get();
+        } catch (Exception ex) {
+            // Si falla, move() recurre a la jugada de respaldo.
+        }
+        ponderTask = null;
+    }
+
+    /**
+     * Prepara el tablero interno y los buffers y ejecuta el Iterative 
+     * Deepening hasta el timeout o la profundidad máxima. Lo usan tanto el 
+     * hilo principal como los ayudantes de Lazy SMP.
+     * 
+     * @param gs Estado actual del juego (no se modifica).
+     * @param firstDepth Profundidad de la primera iteración.
+     */
+    private void search(HexGameStatus gs, int firstDepth) {
+        // Inicialización de variables para la nueva búsqueda.
+        exploredNodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        researches = 0;
+        aspirationResearches = 0;
+        currentMaxDepth = firstDepth;
+        finalUsedDepth = 0;
+        bestMove = null;
+
+        // Asignar colores (jugador actual y oponente).
+        myColor = gs.getCurrentPlayerColor(); // 1 ó -1
+        oppColor = -myColor;
+
+        // Construir el tablero interno: es el único punto en que se lee el HexGameStatus.
+        board = new HexBoard(gs);
+        int cells = gs.getSize() * gs.getSize();
+        if (moveBuffers == null || moveBuffers[0].length != cells) {
+            // Una partida nunca dura más jugadas que celdas tiene el tablero.
+            moveBuffers = new int[cells + 1][cells];
+        }
+        if (evaluator == null || evaluator.getSize() != gs.getSize()) {
+            evaluator = new HexEvaluator(gs.getSize());
+        }
+        if (ordering == null || ordering.getCells() != cells) {
+            ordering = new MoveOrdering(cells);
+        }
+        ordering.setEnabled(moveOrdering);
+        ordering.newSearch();
+        if (search == Search.YBWC) {
+            if (ybwc == null) {
+                ybwc = new YbwcSearch(this, transpositionTable, threads);
+            }
+            ybwc.newSearch(moveOrdering);
+            ybwc.resetStats();
+        }
+
+        // Iterative Deepening. A partir de la segunda iteración se busca con una 
+        // ventana de aspiración centrada en el valor de la anterior.
+        int previousValue = 0;
+        while (!timeoutFlag && currentMaxDepth <= maxDepthAllowed) {
+            int delta = (aspiration && finalUsedDepth > 0) ? ASPIRATION_WINDOW : INFINITY;
+            Point moveCandidate;
+            while (true) {
+                int alpha = (delta == INFINITY) ? -INFINITY : previousValue - delta;
+                int beta = (delta == INFINITY) ? INFINITY : previousValue + delta;
+                moveCandidate = rootSearch(currentMaxDepth, alpha, beta);
+                if (timeoutFlag || moveCandidate == null || (rootValue > alpha && rootValue < beta)) {
+                    break;
+                }
+                // Fuera de la ventana: se amplía y se repite la iteración.
+                aspirationResearches++;
+                delta = (delta * 4 > ASPIRATION_LIMIT) ? INFINITY : delta * 4;
+            }
+            if (!timeoutFlag && moveCandidate != null) {
+                bestMove = moveCandidate;
+                finalUsedDepth = currentMaxDepth;
+                previousValue = rootValue;
+                // Un resultado demostrado, o una búsqueda que ya llega al final 
+                // de la partida, no cambia al profundizar más.
+                if (Math.abs(rootValue) >= WIN_SCORE || currentMaxDepth >= board.getEmptyCount()) {
+                    break;
+                }
+                TimeManager tm = activeTimeManager;
+                if (tm != null && !tm.iterationDone(moveCandidate)) {
+                    break;
+                }
+            }
+            currentMaxDepth++;
+        }
+    }
+
+    /**
+     * Ejecuta una iteración con el algoritmo elegido en el constructor.
+     * 
+     * @param depth Profundidad de la iteración.
+     * @param alpha Límite inferior de la ventana de la raíz.
+     * @param beta Límite superior de la ventana de la raíz.
+     * @return El movimiento elegido, o {@code null} si no se ha explorado ninguno.
+     */
+    private Point rootSearch(int depth, int alpha, int beta) {
+        switch (search) {
+            case PVS:
+                return runPVS(depth, alpha, beta);
+            case YBWC:
+                return runYbwc(depth, alpha, beta);
+            default:
+                return runMiniMax(depth, alpha, beta);
+        }
+    }
+
+    /**
+     * Ejecuta una iteración con la búsqueda paralela YBWC. El valor obtenido 
+     * queda en {@link #rootValue}.
+     * 
+     * @param depth Profundidad de la iteración.
+     * @param alpha Límite inferior de la ventana de la raíz.
+     * @param beta Límite superior de la ventana de la raíz.
+     * @return El movimiento elegido, o {@code null} si no se ha completado ninguno.
+     */
+    private Point runYbwc(int depth, int alpha, int beta) {
+        int chosenMove = ybwc.searchRoot(board, depth, alpha, beta);
+        exploredNodes = (int) ybwc.getNodes();
+        rootValue = ybwc.getRootValue();
+        if (chosenMove < 0) {
+            return null;
+        }
+        int size = board.getSize();
+        return new Point(chosenMove / size, chosenMove % size);
+    }
+
+    /**
+     * Ejecuta el algoritmo MiniMax con poda alpha-beta hasta la profundidad indicada.
+     * El valor obtenido queda en {@link #rootValue}; si no está estrictamente 
+     * dentro de la ventana es sólo una cota y la jugada no es fiable.
+     * 
+     * @param depth Profundidad máxima a la cual se realizará la búsqueda en esta iteración.
+     * @param alpha Límite inferior de la ventana de la raíz.
+     * @param beta Límite superior de la ventana de la raíz.
+     * @return El movimiento (coordenadas x,y) que se considera óptimo para el jugador MAX.
+     */
+    private Point runMiniMax(int depth, int alpha, int beta) {
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+        int bestVal = -INFINITY;
+        int chosenMove = -1;
+
+        int[] moves = moveBuffers[0];
+        int count = generateMoves(moves);
+
+        // La mejor jugada de la iteración anterior se explora primero.
+        long key = board.getKey();
+        long check = board.getCheckKey();
+        long entry = transpositionTable.probe(key, check);
+        int ttMove = (entry != TranspositionTable.MISS) ? TranspositionTable.moveOf(entry) : -1;
+        ordering.score(moves, count, 0, ttMove, myColor);
+
+        // Para cada movimiento posible, se realiza un paso de MiniMax (jugador MIN a continuación).
+        for (int i = 0; i < count; i++) {
+            if (timeoutFlag) break;  // Si hay timeout, se corta la búsqueda.
+
+            int mv = ordering.pickNext(moves, i, count, 0);
+            board.play(mv);
+            int value = minValue(depth - 1, alpha, beta, 1);
+            board.undo(mv);
+
+            if (value > bestVal) {
+                bestVal = value;
+                chosenMove = mv;
+            }
+            alpha = Math.max(alpha, bestVal);
+            if (alpha >= beta) {
+                // Poda alpha-beta.
+                break;
+            }
+        }
+
+        if (chosenMove < 0) {
+            return null;
+        }
+        rootValue = bestVal;
+        if (!timeoutFlag) {
+            storeResult(key, check, bestVal, depth, alphaOrig, betaOrig, chosenMove);
+        }
+        int size = board.getSize();
+        return new Point(chosenMove / size, chosenMove % size);
+    }
+
+    /**
+     * Ejecuta Principal Variation Search hasta la profundidad indicada. La 
+     * primera jugada (la de la iteración anterior) se busca con la ventana 
+     * completa y fija el valor de referencia; el resto se prueba con una 
+     * ventana nula y sólo se vuelve a buscar si la mejora. El valor obtenido 
+     * queda en {@link #rootValue}.
+     * 
+     * @param depth Profundidad máxima a la cual se realizará la búsqueda en esta iteración.
+     * @param alpha Límite inferior de la ventana de la raíz.
+     * @param beta Límite superior de la ventana de la raíz.
+     * @return El movimiento (coordenadas x,y) que se considera óptimo.
+     */
+    private Point runPVS(int depth, int alpha, int beta) {
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+        int bestVal = -INFINITY;
+        int chosenMove = -1;
+
+        int[] moves = moveBuffers[0];
+        int count = generateMoves(moves);
+
+        long key = board.getKey();
+        long check = board.getCheckKey();
+        long entry = transpositionTable.probe(key, check);
+        int ttMove = (entry != TranspositionTable.MISS) ? TranspositionTable.moveOf(entry) : -1;
+        ordering.score(moves, count, 0, ttMove, myColor);
+
+        for (int i = 0; i < count; i++) {
+            if (timeoutFlag) break;
+
+            int mv = ordering.pickNext(moves, i, count, 0);
+            board.play(mv);
+            int value;
+            if (i == 0) {
+                value = -pvs(depth - 1, -beta, -alpha, 1);
+            } else {
+                value = -pvs(depth - 1, -alpha - 1, -alpha, 1);
+                if (value > alpha && value < beta && !timeoutFlag) {
+                    researches++;
+                    value = -pvs(depth - 1, -beta, -alpha, 1);
+                }
+            }
+            board.undo(mv);
+
+            if (value > bestVal) {
+                bestVal = value;
+                chosenMove = mv;
+            }
+            alpha = Math.max(alpha, bestVal);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        if (chosenMove < 0) {
+            return null;
+        }
+        rootValue = bestVal;
+        if (!timeoutFlag) {
+            storeResult(key, check, bestVal, depth, alphaOrig, betaOrig, chosenMove);
+        }
+        int size = board.getSize();
+        return new Point(chosenMove / size, chosenMove % size);
+    }
+
+    /**
+     * Nodo de Principal Variation Search en forma negamax: el valor devuelto 
+     * es siempre desde el punto de vista del jugador al que le toca mover en 
+     * {@link #board}.
+     * 
+     * @param depth Profundidad restante de la búsqueda.
+     * @param alpha Límite inferior de la ventana.
+     * @param beta Límite superior de la ventana.
+     * @param ply Distancia a la raíz (índice del buffer de jugadas).
+     * @return Valor del estado para el jugador que mueve.
+     */
+    private int pvs(int depth, int alpha, int beta, int ply) {
+        if (timeoutFlag) {
+            return 0;
+        }
+        int color = board.getCurrentColor();
+        int sign = (color == myColor) ? 1 : -1;
+        if (board.isGameOver()) {
+            return sign * terminalEvaluation();
+        }
+        if (depth == 0) {
+            exploredNodes++;
+            return sign * evaluateHeuristica();
+        }
+
+        long key = board.getKey();
+        long check = board.getCheckKey();
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+        int ttMove = -1;
+        long entry = transpositionTable.probe(key, check);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.moveOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int ttScore = TranspositionTable.scoreOf(entry);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT) {
+                    return ttScore;
+                } else if (bound == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, ttScore);
+                } else {
+                    beta = Math.min(beta, ttScore);
+                }
+                if (alpha >= beta) {
+                    return ttScore;
+                }
+            }
+        }
+
+        int value = -INFINITY;
+        int bestLocal = -1;
+        int[] moves = moveBuffers[ply];
+        int count = generateMoves(moves);
+        ordering.score(moves, count, ply, ttMove, color);
+
+        for (int i = 0; i < count; i++) {
+            if (timeoutFlag) {
+                break;
+            }
+            int mv = ordering.pickNext(moves, i, count, ply);
+            board.play(mv);
+            int tmp;
+            if (i == 0) {
+                tmp = -pvs(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // Ventana nula: sólo se comprueba si la jugada supera a alpha.
+                tmp = -pvs(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (tmp > alpha && tmp < beta && !timeoutFlag) {
+                    researches++;
+                    tmp = -pvs(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            board.undo(mv);
+            if (tmp > value) {
+                value = tmp;
+                bestLocal = mv;
+            }
+
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta) {
+                recordCutoff(mv, i, ply, color, depth);
+                break;
+            }
+        }
+
+        if (!timeoutFlag) {
+            storeResult(key, check, value, depth, alphaOrig, betaOrig, bestLocal);
+        }
+        return value;
+    }
+
+    /**
+     * Función para el jugador MIN dentro de MiniMax con poda alpha-beta. Trabaja 
+     * sobre el tablero interno {@link #board}, haciendo y deshaciendo jugadas.
+     * 
+     * @param depth Profundidad restante de la búsqueda.
+     * @param alpha Límite inferior de la poda alpha-beta.
+     * @param beta Límite superior de la poda alpha-beta.
+     * @param ply Distancia a la raíz (índice del buffer de jugadas).
+     * @return El valor mínimo que el jugador MIN puede forzar desde este estado.
+     */
+    private int minValue(int depth, int alpha, int beta, int ply) {
+        if (timeoutFlag) {
+            return 0; // Regreso inmediato en caso de timeout.
+        }
+        // Comprobar si es un estado terminal.
+        if (board.isGameOver()) {
+            return terminalEvaluation();
+        }
+        // Si se llega a la profundidad límite, se usa la heurística (por defecto 0, o la definida).
+        if (depth == 0) {
+            exploredNodes++;
+            return evaluateHeuristica();
+        }
+
+        // Consultar la tabla de transposición. Un valor exacto se reutiliza 
+        // directamente; una cota sólo estrecha la ventana (o provoca un corte).
+        // La tabla guarda los valores desde el punto de vista del jugador que 
+        // mueve (aquí el rival): se cambian de signo y se invierte la cota.
+        long key = board.getKey();
+        long check = board.getCheckKey();
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+        int ttMove = -1;
+        long entry = transpositionTable.probe(key, check);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.moveOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int ttScore = -TranspositionTable.scoreOf(entry);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.LOWER) {
+                    bound = TranspositionTable.UPPER;
+                } else if (bound == TranspositionTable.UPPER) {
+                    bound = TranspositionTable.LOWER;
+                }
+                if (bound == TranspositionTable.EXACT) {
+                    return ttScore;
+                } else if (bound == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, ttScore);
+                } else {
+                    beta = Math.min(beta, ttScore);
+                }
+                if (alpha >= beta) {
+                    return ttScore;
+                }
+            }
+        }
+
+        int value = INFINITY;
+        int bestLocal = -1;
+        int[] moves = moveBuffers[ply];
+        int count = generateMoves(moves);
+        ordering.score(moves, count, ply, ttMove, oppColor);
+
+        for (int i = 0; i < count; i++) {
+            if (timeoutFlag) {
+                break;
+            }
+            int mv = ordering.pickNext(moves, i, count, ply);
+            board.play(mv);
+            int tmp = maxValue(depth - 1, alpha, beta, ply + 1);
+            board.undo(mv);
+            if (tmp < value) {
+                value = tmp;
+                bestLocal = mv;
+            }
+
+            beta = Math.min(beta, value);
+            if (beta <= alpha) {
+                // Poda alpha-beta.
+                recordCutoff(mv, i, ply, oppColor, depth);
+                break;
+            }
+        }
+
+        // Almacenar en la tabla de transposición (salvo si la búsqueda se ha cortado),
+        // desde el punto de vista del rival: la ventana también se invierte.
+        if (!timeoutFlag) {
+            storeResult(key, check, -value, depth, -betaOrig, -alphaOrig, bestLocal);
+        }
+        return value;
+    }
+
+    /**
+     * Función para el jugador MAX dentro de MiniMax con poda alpha-beta. Trabaja 
+     * sobre el tablero interno {@link #board}, haciendo y deshaciendo jugadas.
+     * 
+     * @param depth Profundidad restante de la búsqueda.
+     * @param alpha Límite inferior de la poda alpha-beta.
+     * @param beta Límite superior de la poda alpha-beta.
+     * @param ply Distancia a la raíz (índice del buffer de jugadas).
+     * @return El valor máximo que el jugador MAX puede forzar desde este estado.
+     */
+    private int maxValue(int depth, int alpha, int beta, int ply) {
+        if (timeoutFlag) {
+            return 0;
+        }
+        // Comprobar si es un estado terminal.
+        if (board.isGameOver()) {
+            return terminalEvaluation();
+        }
+        // Profundidad límite.
+        if (depth == 0) {
+            exploredNodes++;
+            return evaluateHeuristica();
+        }
+
+        // Revisar la tabla de transposición.
+        long key = board.getKey();
+        long check = board.getCheckKey();
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+        int ttMove = -1;
+        long entry = transpositionTable.probe(key, check);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.moveOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int ttScore = TranspositionTable.scoreOf(entry);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT) {
+                    return ttScore;
+                } else if (bound == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, ttScore);
+                } else {
+                    beta = Math.min(beta, ttScore);
+                }
+                if (alpha >= beta) {
+                    return ttScore;
+                }
+            }
+        }
+
+        int value = -INFINITY;
+        int bestLocal = -1;
+        int[] moves = moveBuffers[ply];
+        int count = generateMoves(moves);
+        ordering.score(moves, count, ply, ttMove, myColor);
+
+        for (int i = 0; i < count; i++) {
+            if (timeoutFlag) {
+                break;
+            }
+            int mv = ordering.pickNext(moves, i, count, ply);
+            board.play(mv);
+            int tmp = minValue(depth - 1, alpha, beta, ply + 1);
+            board.undo(mv);
+            if (tmp > value) {
+                value = tmp;
+                bestLocal = mv;
+            }
+
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta) {
+                // Poda alpha-beta.
+                recordCutoff(mv, i, ply, myColor, depth);
+                break;
+            }
+        }
+
+        // Almacenar en la tabla de transposición (salvo si la búsqueda se ha cortado).
+        if (!timeoutFlag) {
+            storeResult(key, check, value, depth, alphaOrig, betaOrig, bestLocal);
+        }
+        return value;
+    }
+
+    /**
+     * Guarda en la tabla de transposición el resultado de un nodo, clasificando 
+     * el valor según la ventana con la que se llamó al nodo: si no superó 
+     * {@code alpha} es una cota superior, si alcanzó {@code beta} es una cota 
+     * inferior y en otro caso es exacto.
+     * 
+     * <p>El valor y la ventana deben estar desde el punto de vista del jugador 
+     * que mueve en el nodo, y la profundidad es la restante (no la distancia a 
+     * la raíz). Así una entrada no depende de la raíz ni del color del jugador 
+     * y sigue siendo válida en los movimientos siguientes de la partida.</p>
+     * 
+     * @param key Clave Zobrist del estado.
+     * @param check Clave de verificación del estado.
+     * @param value Valor obtenido por la búsqueda, para el jugador que mueve.
+     * @param depth Profundidad restante con la que se buscó el nodo.
+     * @param alphaOrig Valor de alpha al entrar en el nodo, para el jugador que mueve.
+     * @param betaOrig Valor de beta al entrar en el nodo, para el jugador que mueve.
+     * @param best Índice de celda de la mejor jugada encontrada, o -1.
+     */
+    private void storeResult(long key, long check, int value, int depth, int alphaOrig, int betaOrig, int best) {
+        int bound;
+        if (value <= alphaOrig) {
+            bound = TranspositionTable.UPPER;
+        } else if (value >= betaOrig) {
+            bound = TranspositionTable.LOWER;
+        } else {
+            bound = TranspositionTable.EXACT;
+        }
+        transpositionTable.store(key, check, value, depth, bound, best);
+    }
+
+    /**
+     * Contabiliza un corte alpha-beta y lo comunica a la ordenación de jugadas.
+     * 
+     * @param move Jugada que ha provocado el corte.
+     * @param index Posición de la jugada en el orden de exploración del nodo.
+     * @param ply Distancia a la raíz.
+     * @param color Color del jugador que ha hecho la jugada.
+     * @param depth Profundidad restante del nodo.
+     */
+    private void recordCutoff(int move, int index, int ply, int color, int depth) {
+        cutoffs++;
+        if (index == 0) {
+            firstMoveCutoffs++;
+        }
+        ordering.recordCutoff(move, ply, color, depth);
+    }
+
+    /**
+     * Evalúa el resultado de un estado terminal:
+     * <ul>
+     *   <li>{@link #WIN_SCORE} si el ganador es {@code myColor}.</li>
+     *   <li>-{@link #WIN_SCORE} si el ganador es {@code oppColor}.</li>
+     *   <li>0 en caso de que no haya un ganador válido (muy raro en Hex).</li>
+     * </ul>
+     * 
+     * @return Un valor representativo de la utilidad del estado actual de {@link #board}.
+     */
+    private int terminalEvaluation() {
+        int winner = board.getWinnerColor();
+        if (winner == myColor) {
+            return WIN_SCORE;
+        } else if (winner == oppColor) {
+            return -WIN_SCORE;
+        }
+        return 0;
+    }
+
+    /**
+     * Escribe en {@code moves} las celdas libres del tablero interno, en orden 
+     * de filas, sin reservar memoria.
+     * 
+     * @param moves Buffer de destino (de tamaño {@code size * size}).
+     * @return Número de jugadas escritas.
+     */
+    private int generateMoves(int[] moves) {
+        return board.emptyCells(moves);
+    }
+
+    /**
+     * Obtiene todos los movimientos disponibles (celdas libres) en un estado {@link HexGameStatus}.
+     * 
+     * @param st Estado del juego.
+     * @return Lista de puntos disponibles (celdas vacías).
+     */
+    private List<Point> getAllMoves(HexGameStatus st) {
+        List<Point> res = new ArrayList<>();
+        int n = st.getSize();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (st.getPos(i, j) == 0) {
+                    res.add(new Point(i, j));
+                }
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Evalúa de manera heurística un estado de juego no terminal.
+     * 
+     * <p>Actualmente se emplea un posible cálculo basado en la diferencia de distancias
+     * mediante Dijkstra, para aproximar la cercanía de la conexión de cada jugador.
+     * 
+     * @return Un valor entero que representa la evaluación heurística del estado actual de {@link #board}.
+     */
+    private int evaluateHeuristica() {
+        return evaluate(evaluator, board, myColor);
+    }
+
+    /**
+     * Heurística de las hojas, compartida por la búsqueda secuencial y por 
+     * {@link YbwcSearch} para que las dos den exactamente los mismos valores.
+     * 
+     * <p>Es antisimétrica: {@code evaluate(..., -color) == -evaluate(..., color)}. 
+     * Así el valor desde el punto de vista del jugador que mueve no depende de 
+     * qué color tenga la raíz, y la tabla de transposición se puede compartir 
+     * entre jugadores de colores distintos.</p>
+     * 
+     * @param evaluator Evaluador (con sus buffers) del hilo que llama.
+     * @param board Estado no terminal a evaluar.
+     * @param color Jugador desde cuyo punto de vista se evalúa.
+     * @return Valor heurístico del estado para {@code color}.
+     */
+    static int evaluate(HexEvaluator evaluator, HexBoard board, int color) {
+        // El evaluador calcula la misma distancia que HeuristicaID.runDijkstra
+        // para los dos jugadores en una sola llamada, decodificando el tablero una vez.
+        evaluator.computeDistances(board);
+        int myDistance = evaluator.getDistance(color);
+        int opponentDistance = evaluator.getDistance(-color);
+
+        return (opponentDistance - myDistance) * 10;
+    }
+
+    /**
+     * Devuelve el nombre del jugador que será mostrado en la interfaz.
+     * 
+     * @return Cadena con el nombre del jugador.
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Devuelve las estadísticas de la última búsqueda realizada.
+     * 
+     * @return Estadísticas del último {@link #move}, o {@code null} si aún no se ha movido.
+     */
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Clase que almacena las estadísticas de una búsqueda.
+     */
+    public static class SearchStats {
+        /**
+         * Nodos hoja evaluados por el hilo principal.
+         */
+        public long nodes;
+
+        /**
+         * Nodos hoja evaluados por todos los hilos.
+         */
+        public long totalNodes;
+
+        /**
+         * Nodos hoja por segundo de todos los hilos.
+         */
+        public long nodesPerSecond;
+
+        /**
+         * Hilos de búsqueda usados.
+         */
+        public int threads;
+
+        /**
+         * Repartos de hermanos menores entre hilos (sólo YBWC).
+         */
+        public long splits;
+
+        /**
+         * Última profundidad completada.
+         */
+        public int depth;
+
+        /**
+         * Tiempo empleado en milisegundos.
+         */
+        public long timeMillis;
+
+        /**
+         * Consultas a la tabla de transposición.
+         */
+        public long ttProbes;
+
+        /**
+         * Consultas que encontraron la posición.
+         */
+        public long ttHits;
+
+        /**
+         * Falsos aciertos descartados por la clave de verificación.
+         */
+        public long ttCollisions;
+
+        /**
+         * Cortes alpha-beta producidos.
+         */
+        public long cutoffs;
+
+        /**
+         * Cortes producidos por la primera jugada explorada del nodo. Cuanto 
+         * más se acerque a {@link #cutoffs}, mejor es la ordenación.
+         */
+        public long firstMoveCutoffs;
+
+        /**
+         * Re-búsquedas con ventana completa tras superar una ventana nula (sólo PVS).
+         */
+        public long researches;
+
+        /**
+         * Iteraciones repetidas por salirse de la ventana de aspiración.
+         */
+        public int aspirationResearches;
+
+        /**
+         * La posición era la respuesta prevista del rival y se continuó la 
+         * búsqueda hecha durante su turno.
+         */
+        public boolean ponderHit;
+
+        /**
+         * La jugada salió del libro de aperturas, sin buscar.
+         */
+        public boolean bookHit;
+
+        @Override
+        public String toString() {
+            return "SearchStats{" +
+                   "nodes=" + nodes +
+                   ", totalNodes=" + totalNodes +
+                   ", nodesPerSecond=" + nodesPerSecond +
+                   ", threads=" + threads +
+                   ", splits=" + splits +
+                   ", depth=" + depth +
+                   ", timeMillis=" + timeMillis +
+                   ", ttProbes=" + ttProbes +
+                   ", ttHits=" + ttHits +
+                   ", ttCollisions=" + ttCollisions +
+                   ", cutoffs=" + cutoffs +
+                   ", firstMoveCutoffs=" + firstMoveCutoffs +
+                   ", researches=" + researches +
+                   ", aspirationResearches=" + aspirationResearches +
+                   ", ponderHit=" + ponderHit +
+                   ", bookHit=" + bookHit +
+                   '}';
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,779 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import edu.upc.epsevg.prop.hex.IAuto;
+import edu.upc.epsevg.prop.hex.IPlayer;
+import edu.upc.epsevg.prop.hex.PlayerMove;
+import edu.upc.epsevg.prop.hex.SearchType;
+import java.awt.Point;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Jugador automático basado en Monte Carlo Tree Search (MCTS) con la fórmula
+ * UCT para elegir qué rama explorar.
+ *
+ * <p>Cada iteración baja por el árbol eligiendo en cada nodo el hijo con
+ * mayor valor. Al llegar a un hijo sin nodo se detiene y, si el hijo ya había
+ * sido visitado antes, le crea el nodo; después juega una partida aleatoria
+ * desde allí y suma el resultado a todos los nodos del camino. La jugada
+ * devuelta es la del hijo de la raíz más visitado. La búsqueda continúa hasta
+ * {@link #timeout()} o hasta el límite fijado con {@link #setMaxPlayouts}.</p>
+ *
+ * <p>Las estadísticas de los hijos se guardan en el nodo padre, en arrays
+ * paralelos indexados por hijo (jugada, resultados propios y resultados RAVE),
+ * y los nodos de los hijos sólo se crean cuando hacen falta. Así un nodo
+ * expandido son unos pocos arrays contiguos en lugar de un objeto por jugada,
+ * y elegir un hijo recorre memoria consecutiva.</p>
+ *
+ * <p>Con RAVE (activado por defecto, ver {@link #setRave}) cada nodo guarda
+ * además, por hijo, las estadísticas <i>All-Moves-As-First</i>: una partida
+ * cuenta para la jugada {@code m} de un nodo si, en algún momento después del
+ * nodo, el jugador que movía en él ocupó {@code m}. Como cada partida llena el
+ * tablero, esto es simplemente mirar el color final de cada celda, y cada
+ * partida actualiza las estadísticas de casi todos los hijos de cada nodo del
+ * camino. El valor de un hijo mezcla su proporción de victorias con la de
+ * RAVE, con un peso para RAVE que disminuye a medida que el hijo acumula
+ * visitas propias (fórmula de Gelly y Silver).</p>
+ *
+ * <p>Con {@link #setThreads} mayor que 1 varios hilos hacen iteraciones sobre
+ * el mismo árbol sin bloqueos. Las visitas y las victorias de cada hijo van
+ * empaquetadas en un único {@code long} atómico (visitas en los 32 bits altos,
+ * victorias en los bajos), de modo que se leen siempre juntas y coherentes. La
+ * visita se suma al bajar por el árbol y la victoria, si la hay, al volver:
+ * mientras la partida está en curso el hijo cuenta como una derrota (pérdida
+ * virtual) y los demás hilos tienden a elegir otras ramas. Los nodos nuevos se
+ * publican con un compare-and-set; si dos hilos crean el mismo, se queda el
+ * primero.</p>
+ *
+ * <p>Las partidas aleatorias las juega {@link PlayoutKernel} sobre bitsets,
+ * aprovechando que en Hex no hay empates y que un tablero lleno siempre tiene
+ * exactamente un ganador: las celdas vacías se reparten al azar entre los dos
+ * colores (tantas para cada uno como le tocarían jugando por turnos) sin
+ * comprobar la victoria jugada a jugada, y al final un único flood fill decide
+ * el ganador. Una cadena ganadora no se rompe al añadir piedras, de modo que el
+ * resultado es el mismo que si la partida se hubiera detenido al ganar; por el
+ * mismo motivo tampoco hace falta detectar los nodos terminales del árbol.</p>
+ *
+ * <p>El árbol se conserva entre movimientos. Al recibir un estado nuevo se
+ * busca en el árbol anterior el nodo al que llevan las piedras añadidas
+ * (nuestra jugada y la respuesta del rival) y, si existe, pasa a ser la raíz
+ * con todas sus estadísticas. Si no se encuentra, se empieza un árbol nuevo.
+ * El subárbol conservado cuenta para el límite de memoria del árbol (ver
+ * {@link #setMaxTreeBytes}), de modo que la memoria queda acotada durante
+ * toda la partida y no sólo en cada movimiento.</p>
+ */
+public class PlayerMCTS implements IPlayer, IAuto {
+
+    /**
+     * Constante de exploración de UCT.
+     */
+    private static final double EXPLORATION = 0.7;
+
+    /**
+     * Constante de exploración con RAVE: las estadísticas RAVE ya dan
+     * información sobre los hijos poco visitados y hace falta mucha menos.
+     */
+    private static final double RAVE_EXPLORATION = 0.1;
+
+    /**
+     * Número de visitas con el que el valor propio de un hijo pesa lo mismo
+     * que su valor RAVE.
+     */
+    private static final double RAVE_EQUIVALENCE = 500;
+
+    /**
+     * Bytes estimados de un nodo sin contar sus hijos: el objeto y las
+     * cabeceras de sus cuatro arrays (y de los objetos atómicos que envuelven
+     * tres de ellos).
+     */
+    private static final int NODE_BYTES = 144;
+
+    /**
+     * Bytes estimados de cada hijo de un nodo: su jugada (4), sus
+     * estadísticas propias y RAVE (8 + 8) y la referencia a su nodo (4 con
+     * referencias comprimidas). En un tablero 11x11 vacío un nodo ocupa unos
+     * 3 KB.
+     */
+    private static final int SLOT_BYTES = 24;
+
+    /**
+     * Una visita en las estadísticas empaquetadas de un hijo.
+     */
+    private static final long VISIT = 1L << 32;
+
+    /**
+     * Nombre del jugador.
+     */
+    private final String name = "HexorcistaMCTS";
+
+    /**
+     * Bandera que indica si se ha producido el timeout.
+     */
+    private volatile boolean timeoutFlag = false;
+
+    /**
+     * Número máximo de partidas aleatorias por movimiento.
+     */
+    private long maxPlayouts = Long.MAX_VALUE;
+
+    /**
+     * Memoria máxima del árbol en bytes estimados (ver {@link #setMaxTreeBytes}).
+     */
+    private long maxTreeBytes = Runtime.getRuntime().maxMemory() / 4;
+
+    /**
+     * Si la selección usa las estadísticas RAVE.
+     */
+    private boolean rave = true;
+
+    /**
+     * Número de hilos de búsqueda, incluido el que llama a {@link #move}.
+     */
+    private int threads = 1;
+
+    /**
+     * Estado de búsqueda de cada hilo; el primero es el del hilo que llama a
+     * {@link #move}.
+     */
+    private Worker[] workers = {new Worker()};
+
+    /**
+     * Hilos de los trabajadores adicionales, o {@code null} con un solo hilo.
+     */
+    private ExecutorService workerPool;
+
+    /**
+     * Tamaño del tablero para el que se han reservado los buffers.
+     */
+    private int size;
+
+    /**
+     * Número de celdas del tablero.
+     */
+    private int cellCount;
+
+    /**
+     * Raíz del árbol: el estado del último {@link #move}.
+     */
+    private Node root;
+
+    /**
+     * Contenido de cada celda en el estado de la raíz (1, -1 o 0).
+     */
+    private int[] rootCells;
+
+    /**
+     * Color del jugador que mueve en la raíz.
+     */
+    private int rootColor;
+
+    /**
+     * Estado recibido en {@link #move}, mientras se busca en el árbol anterior.
+     */
+    private int[] stateCells;
+
+    /**
+     * Partidas empezadas en el movimiento actual, entre todos los hilos.
+     */
+    private final AtomicLong startedPlayouts = new AtomicLong();
+
+    /**
+     * Nodos creados en el movimiento actual, entre todos los hilos.
+     */
+    private final AtomicInteger createdNodes = new AtomicInteger();
+
+    /**
+     * Bytes estimados del árbol actual: los del subárbol reutilizado al
+     * empezar el movimiento más los de los nodos creados desde entonces por
+     * todos los hilos.
+     */
+    private final AtomicLong treeBytes = new AtomicLong();
+
+    /**
+     * Estadísticas de la última llamada a {@link #move}.
+     */
+    private SearchStats lastStats;
+
+    /**
+     * Limita el número de partidas aleatorias por movimiento. Sirve para
+     * comparar configuraciones con el mismo presupuesto.
+     *
+     * @param maxPlayouts Partidas por movimiento ({@code Long.MAX_VALUE} sin límite).
+     * @throws IllegalArgumentException Si es menor que 1.
+     */
+    public void setMaxPlayouts(long maxPlayouts) {
+        if (maxPlayouts < 1) throw new IllegalArgumentException("El número de partidas debe ser >= 1.");
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * Limita la memoria del árbol. Al alcanzarla las iteraciones ya no
+     * expanden el árbol y sólo simulan desde la hoja. La memoria se estima por
+     * los hijos reservados en cada nodo, no por el número de nodos, porque un
+     * nodo cerca de la raíz de un tablero grande ocupa cientos de veces más
+     * que uno cerca del final de la partida. El límite es para todo el árbol,
+     * incluido el subárbol heredado del movimiento anterior. Por defecto es
+     * una cuarta parte del heap máximo de la JVM.
+     *
+     * @param bytes Memoria máxima estimada del árbol, en bytes.
+     * @throws IllegalArgumentException Si es menor que 1.
+     */
+    public void setMaxTreeBytes(long bytes) {
+        if (bytes < 1) throw new IllegalArgumentException("La memoria del árbol debe ser >= 1.");
+        this.maxTreeBytes = bytes;
+    }
+
+    /**
+     * Activa o desactiva RAVE. Desactivado, la selección es UCT pura y los
+     * hijos sin visitar se prueban en orden aleatorio antes que los demás.
+     *
+     * @param enabled {@code true} para usar RAVE (valor por defecto).
+     */
+    public void setRave(boolean enabled) {
+        this.rave = enabled;
+    }
+
+    /**
+     * Fija el número de hilos que hacen iteraciones sobre el árbol. Con 1
+     * (valor por defecto) la búsqueda es secuencial.
+     *
+     * @param threads Número de hilos, incluido el que llama a {@link #move}.
+     * @throws IllegalArgumentException Si es menor que 1.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("El número de hilos debe ser >= 1.");
+        if (threads == this.threads) {
+            return;
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+            workerPool = null;
+        }
+        this.threads = threads;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+        }
+        if (threads > 1) {
+            workerPool = Executors.newFixedThreadPool(threads - 1, r -> {
+                Thread t = new Thread(r, "PlayerMCTS-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        // Los buffers de los trabajadores nuevos se reservan en el próximo movimiento.
+        size = 0;
+    }
+
+    /**
+     * Método que se invoca cuando expira el tiempo de búsqueda.
+     */
+    @Override
+    public void timeout() {
+        timeoutFlag = true;
+    }
+
+    /**
+     * Calcula la jugada jugando partidas aleatorias hasta el timeout (o hasta
+     * el límite de partidas) y devuelve la más visitada de la raíz.
+     *
+     * @param gs Estado actual del juego.
+     * @return La jugada elegida, con el número de partidas jugadas como nodos
+     *         explorados y la profundidad máxima alcanzada en el árbol.
+     */
+    @Override
+    public PlayerMove move(HexGameStatus gs) {
+        timeoutFlag = false;
+        long startTime = System.currentTimeMillis();
+        startedPlayouts.set(0);
+        createdNodes.set(0);
+        prepareRoot(gs);
+        long reused = root.visits;
+
+        // Los trabajadores adicionales buscan sobre el mismo árbol mientras lo hace este hilo.
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < workers.length; i++) {
+            Worker w = workers[i];
+            running.add(workerPool.submit(w::search));
+        }
+        workers[0].search();
+
+        // Todos salen del bucle con la misma condición; se espera a que acaben su última partida.
+        long playouts = workers[0].playouts;
+        int maxDepth = workers[0].maxDepth;
+        for (int i = 0; i < running.size(); i++) {
+            try {
+                running.get(i).get();
+            } catch (Exception ex) {
+                // Un trabajador que falla no invalida las estadísticas del árbol.
+            }
+            playouts += workers[i + 1].playouts;
+            maxDepth = Math.max(maxDepth, workers[i + 1].maxDepth);
+        }
+
+        int best = 0;
+        for (int i = 1; i < root.moves.length; i++) {
+            if (root.stats.get(i) >>> 32 > root.stats.get(best) >>> 32) {
+                best = i;
+            }
+        }
+        long bestStats = root.stats.get(best);
+
+        lastStats = new SearchStats();
+        lastStats.playouts = playouts;
+        lastStats.timeMillis = System.currentTimeMillis() - startTime;
+        lastStats.playoutsPerSecond = playouts * 1000 / Math.max(1, lastStats.timeMillis);
+        lastStats.reusedPlayouts = reused;
+        lastStats.createdNodes = createdNodes.get();
+        lastStats.treeBytes = treeBytes.get();
+        lastStats.maxDepth = maxDepth;
+        lastStats.threads = threads;
+        lastStats.bestVisits = (int) (bestStats >>> 32);
+        lastStats.bestWinRate = (double) (int) bestStats / Math.max(1, lastStats.bestVisits);
+
+        // El tipo de búsqueda del framework más cercano: la decisión sale de partidas aleatorias.
+        int mv = root.moves[best];
+        Point p = new Point(mv / size, mv % size);
+        return new PlayerMove(p, playouts, maxDepth, SearchType.RANDOM);
+    }
+
+    /**
+     * Sitúa la raíz en el estado recibido, reutilizando el subárbol del árbol
+     * anterior que le corresponde si lo hay, y calcula la memoria del árbol
+     * resultante en {@link #treeBytes}.
+     *
+     * @param gs Estado actual del juego.
+     */
+    private void prepareRoot(HexGameStatus gs) {
+        int n = gs.getSize();
+        if (n != size) {
+            size = n;
+            cellCount = n * n;
+            rootCells = new int[cellCount];
+            stateCells = new int[cellCount];
+            for (Worker w : workers) {
+                w.allocate();
+            }
+            root = null;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            stateCells[c] = gs.getPos(c / size, c % size);
+        }
+        int color = gs.getCurrentPlayerColor();
+
+        for (Worker w : workers) {
+            w.kernel.setPosition(stateCells);
+        }
+        Node node = findDescendant(color);
+        root = (node != null) ? node : new Node(workers[0].kernel);
+        treeBytes.set(subtreeBytes(root));
+        System.arraycopy(stateCells, 0, rootCells, 0, cellCount);
+        rootColor = color;
+    }
+
+    /**
+     * Busca en el árbol actual el nodo del estado que hay en
+     * {@link #stateCells}: sigue desde la raíz las jugadas de las piedras
+     * añadidas, alternando los colores a partir del jugador que movía en la
+     * raíz.
+     *
+     * @param color Color del jugador que mueve en el estado buscado.
+     * @return El nodo encontrado, o {@code null} si no está en el árbol.
+     */
+    private Node findDescendant(int color) {
+        if (root == null) {
+            return null;
+        }
+        int added = 0;
+        for (int c = 0; c < cellCount; c++) {
+            if (rootCells[c] != 0) {
+                if (stateCells[c] != rootCells[c]) {
+                    return null;
+                }
+            } else if (stateCells[c] != 0) {
+                added++;
+            }
+        }
+        Node node = root;
+        int mover = rootColor;
+        for (; added > 0; added--) {
+            Node next = null;
+            int[] moves = node.moves;
+            for (int i = 0; i < moves.length; i++) {
+                int mv = moves[i];
+                if (rootCells[mv] == 0 && stateCells[mv] == mover) {
+                    next = node.children.get(i);
+                    break;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            node = next;
+            mover = -mover;
+        }
+        return (mover == color) ? node : null;
+    }
+
+    /**
+     * Estima la memoria de un subárbol recorriéndolo entero. Se llama una vez
+     * por movimiento, antes de que empiecen los hilos, y el recorrido está
+     * acotado por el propio límite de memoria.
+     *
+     * @param top Raíz del subárbol.
+     * @return Bytes estimados de todos sus nodos.
+     */
+    private static long subtreeBytes(Node top) {
+        long bytes = 0;
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(top);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            bytes += node.bytes();
+            AtomicReferenceArray<Node> children = node.children;
+            for (int i = 0, len = children.length(); i < len; i++) {
+                Node child = children.get(i);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Devuelve las estadísticas de la última búsqueda realizada.
+     *
+     * @return Estadísticas del último {@link #move}, o {@code null} si aún no se ha movido.
+     */
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Devuelve el nombre del jugador.
+     *
+     * @return Cadena con el nombre del jugador.
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Estado de búsqueda de un hilo: tablero de trabajo y buffers propios.
+     * El árbol es compartido.
+     */
+    private final class Worker {
+        /**
+         * Tablero de trabajo de cada iteración, con su generador aleatorio.
+         */
+        PlayoutKernel kernel;
+
+        /**
+         * Nodos del camino de la iteración actual, de la raíz a la hoja.
+         */
+        Node[] path;
+
+        /**
+         * Índice del hijo elegido en cada nodo de {@link #path}.
+         */
+        int[] pathChild;
+
+        /**
+         * Partidas jugadas por este hilo en el movimiento actual.
+         */
+        long playouts;
+
+        /**
+         * Profundidad máxima alcanzada por este hilo en el movimiento actual.
+         */
+        int maxDepth;
+
+        /**
+         * Reserva los buffers para el tamaño de tablero actual.
+         */
+        void allocate() {
+            kernel = new PlayoutKernel(size, ThreadLocalRandom.current().nextLong());
+            path = new Node[cellCount + 1];
+            pathChild = new int[cellCount + 1];
+        }
+
+        /**
+         * Hace iteraciones hasta el timeout o hasta que entre todos los hilos
+         * se han empezado {@link #maxPlayouts} partidas.
+         */
+        void search() {
+            playouts = 0;
+            maxDepth = 0;
+            while (!timeoutFlag && startedPlayouts.getAndIncrement() < maxPlayouts) {
+                maxDepth = Math.max(maxDepth, iterate());
+                playouts++;
+            }
+        }
+
+        /**
+         * Hace una iteración de MCTS: selección, expansión, partida aleatoria
+         * y retropropagación.
+         *
+         * @return Profundidad de la hoja alcanzada.
+         */
+        int iterate() {
+            kernel.reset();
+            int color = rootColor;
+            Node node = root;
+            int depth = 0;
+            while (true) {
+                path[depth] = node;
+                Node.VISITS.incrementAndGet(node);
+                if (node.moves.length == 0) {
+                    pathChild[depth++] = -1;
+                    break;
+                }
+                int i = select(node);
+                pathChild[depth++] = i;
+                // La visita se cuenta ya: hasta que llegue el resultado es una pérdida virtual.
+                long before = node.stats.getAndAdd(i, VISIT);
+                kernel.play(node.moves[i], color);
+                color = -color;
+                Node child = node.children.get(i);
+                if (child == null) {
+                    // Un hijo se expande en su segunda visita; en la primera sólo se simula.
+                    if (before == 0 || treeBytes.get() >= maxTreeBytes) {
+                        break;
+                    }
+                    child = new Node(kernel);
+                    if (node.children.compareAndSet(i, null, child)) {
+                        createdNodes.incrementAndGet();
+                        treeBytes.addAndGet(child.bytes());
+                    } else {
+                        child = node.children.get(i);
+                    }
+                }
+                node = child;
+            }
+
+            int winner = kernel.playout(color);
+
+            // Tras la partida el tablero de trabajo está lleno: cada celda tiene su color final.
+            int mover = rootColor;
+            for (int k = 0; k < depth; k++) {
+                Node n = path[k];
+                int win = (winner == mover) ? 1 : 0;
+                int i = pathChild[k];
+                if (i >= 0 && win != 0) {
+                    n.stats.getAndAdd(i, win);
+                }
+                if (rave) {
+                    int[] moves = n.moves;
+                    AtomicLongArray rs = n.raveStats;
+                    long delta = VISIT + win;
+                    for (int j = 0; j < moves.length; j++) {
+                        if (kernel.get(moves[j]) == mover) {
+                            rs.getAndAdd(j, delta);
+                        }
+                    }
+                }
+                mover = -mover;
+            }
+            return depth;
+        }
+
+        /**
+         * Elige el hijo con mayor valor. Sin RAVE es UCT y un hijo sin visitas
+         * se elige antes que cualquier otro. Con RAVE el valor es
+         * {@code (1 - b) * q + b * r} más un término de exploración pequeño,
+         * donde {@code q} y {@code r} son las proporciones de victorias propia
+         * y RAVE y {@code b = nr / (n + nr + n * nr / RAVE_EQUIVALENCE)}.
+         *
+         * @param node Nodo expandido con al menos un hijo.
+         * @return Índice del hijo elegido.
+         */
+        int select(Node node) {
+            double logN = Math.log(node.visits);
+            AtomicLongArray stats = node.stats;
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0, len = node.moves.length; i < len; i++) {
+                long s = stats.get(i);
+                int n = (int) (s >>> 32);
+                int w = (int) s;
+                double value;
+                if (!rave) {
+                    if (n == 0) {
+                        return i;
+                    }
+                    value = (double) w / n + EXPLORATION * Math.sqrt(logN / n);
+                } else {
+                    long r = node.raveStats.get(i);
+                    int nr = (int) (r >>> 32);
+                    double q = (n > 0) ? (double) w / n : 1.0;
+                    if (nr > 0) {
+                        double b = nr / (n + nr + n * nr / RAVE_EQUIVALENCE);
+                        q = (1 - b) * q + b * (double) (int) r / nr;
+                    }
+                    value = q + RAVE_EXPLORATION * Math.sqrt(logN / (n + 1));
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Nodo del árbol de búsqueda. Las estadísticas de cada hijo están en los
+     * arrays del padre, con el mismo índice que su jugada en {@link #moves},
+     * empaquetadas como {@code (visitas << 32) | victorias}. Un nodo se crea
+     * ya expandido y sus arrays no cambian de tamaño, por lo que los hilos
+     * sólo necesitan operaciones atómicas sobre sus elementos.
+     */
+    private static final class Node {
+        /**
+         * Actualizador atómico de {@link #visits}.
+         */
+        static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+
+        /**
+         * Iteraciones que han pasado por el nodo, incluidas las que aún no
+         * han terminado su partida.
+         */
+        volatile int visits;
+
+        /**
+         * Jugadas de los hijos: las celdas vacías del nodo en orden aleatorio,
+         * para que sin RAVE los hijos sin visitar se prueben al azar.
+         */
+        final int[] moves;
+
+        /**
+         * Visitas y victorias del jugador que mueve en el nodo, por hijo.
+         */
+        final AtomicLongArray stats;
+
+        /**
+         * Partidas en las que el jugador que mueve en el nodo ocupó la celda
+         * del hijo en algún momento posterior, y cuántas de ellas ganó.
+         */
+        final AtomicLongArray raveStats;
+
+        /**
+         * Nodo de cada hijo, o {@code null} mientras no se ha expandido.
+         */
+        final AtomicReferenceArray<Node> children;
+
+        /**
+         * Crea un nodo expandido con las celdas vacías de un tablero.
+         *
+         * @param kernel Tablero en el estado del nodo; su generador baraja las jugadas.
+         */
+        Node(PlayoutKernel kernel) {
+            moves = kernel.emptyCells();
+            int n = moves.length;
+            for (int i = n - 1; i > 0; i--) {
+                int j = kernel.nextInt(i + 1);
+                int t = moves[i];
+                moves[i] = moves[j];
+                moves[j] = t;
+            }
+            stats = new AtomicLongArray(n);
+            raveStats = new AtomicLongArray(n);
+            children = new AtomicReferenceArray<>(n);
+        }
+
+        /**
+         * Estima la memoria que ocupa el nodo, sin contar los nodos de sus hijos.
+         *
+         * @return Bytes estimados.
+         */
+        long bytes() {
+            return NODE_BYTES + (long) moves.length * SLOT_BYTES;
+        }
+    }
+
+    /**
+     * Clase que almacena las estadísticas de una búsqueda.
+     */
+    public static class SearchStats {
+        /**
+         * Partidas aleatorias jugadas en este movimiento, entre todos los hilos.
+         */
+        public long playouts;
+
+        /**
+         * Partidas aleatorias por segundo.
+         */
+        public long playoutsPerSecond;
+
+        /**
+         * Tiempo empleado en milisegundos.
+         */
+        public long timeMillis;
+
+        /**
+         * Partidas que ya tenía la raíz al empezar, heredadas del movimiento anterior.
+         */
+        public long reusedPlayouts;
+
+        /**
+         * Nodos añadidos al árbol en este movimiento.
+         */
+        public int createdNodes;
+
+        /**
+         * Memoria estimada del árbol al terminar el movimiento, incluido el
+         * subárbol reutilizado, en bytes.
+         */
+        public long treeBytes;
+
+        /**
+         * Profundidad máxima alcanzada en el árbol.
+         */
+        public int maxDepth;
+
+        /**
+         * Número de hilos de búsqueda.
+         */
+        public int threads;
+
+        /**
+         * Visitas de la jugada elegida.
+         */
+        public int bestVisits;
+
+        /**
+         * Proporción de victorias de la jugada elegida.
+         */
+        public double bestWinRate;
+
+        @Override
+        public String toString() {
+            return "SearchStats{" +
+                   "playouts=" + playouts +
+                   ", playoutsPerSecond=" + playoutsPerSecond +
+                   ", timeMillis=" + timeMillis +
+                   ", reusedPlayouts=" + reusedPlayouts +
+                   ", createdNodes=" + createdNodes +
+                   ", treeBytes=" + treeBytes +
+                   ", maxDepth=" + maxDepth +
+                   ", threads=" + threads +
+                   ", bestVisits=" + bestVisits +
+                   ", bestWinRate=" + bestWinRate +
+                   '}';
+        }
+    }
+}
@@ -1,207 +1,234 @@
-package edu.upc.epsevg.prop.hex.players;
-
-import edu.upc.epsevg.prop.hex.*;
-import static edu.upc.epsevg.prop.hex.PlayerType.getColor;
-import java.awt.Point;
-import java.util.*;
-
-/**
- * Estrategia de jugador automático que implementa el algoritmo MiniMax para Hex.
- * Utiliza una heurística basada en conexiones virtuales, puentes y semi-conexiones.
- */
-public class PlayerMiniM implements IPlayer, IAuto {
-
-    /**
-     * Nombre del jugador.
-     */
-    private String name = "HexorcistaMiniMax";
-
-    /**
-     * Tipo de jugador que representa al jugador maximizado en el algoritmo MiniMax.
-     */
-    private PlayerType jugadorMaxim;
-
-    /**
-     * Tipo de jugador que representa al jugador minimizado en el algoritmo MiniMax.
-     */
-    private PlayerType jugadorMinim;
-
-    /**
-     * Profundidad máxima de búsqueda del algoritmo MiniMax.
-     */
-    private int profunditat;
-
-    /**
-     * Contador de nodos explorados durante la búsqueda.
-     */
-    private int nodesExplorats = 0;
-
-    /**
-     * Constructor que inicializa el jugador con una profundidad específica.
-     *
-     * @param profunditat La profundidad máxima de búsqueda.
-     * @throws RuntimeException Si la profundidad es menor que 1.
-     */
-    public PlayerMiniM(int profunditat) {
-        if (profunditat < 1) throw new RuntimeException("La profundidad debe ser >= 1.");
-        this.profunditat = profunditat;
-    }
-
-    /**
-     * Método llamado cuando se produce un timeout. Este jugador no realiza ninguna acción en caso de timeout.
-     */
-    @Override
-    public void timeout() {
-        // No hacemos nada! Soy muy rápido y nunca hago timeout ;)
-    }
-
-    /**
-     * Determina el siguiente movimiento del jugador utilizando el algoritmo MiniMax.
-     *
-     * @param s El estado actual del juego.
-     * @return El movimiento elegido por el jugador.
-     */
-    @Override
-    public PlayerMove move(HexGameStatus s) {
-        nodesExplorats = 0;
-        jugadorMaxim = s.getCurrentPlayer();
-        jugadorMinim = PlayerType.opposite(jugadorMaxim);
-
-        Point millorMoviment = miniMax(s);
-        return new PlayerMove(millorMoviment, nodesExplorats, profunditat, SearchType.MINIMAX);
-    }
-
-    /**
-     * Implementa el algoritmo MiniMax para determinar el mejor movimiento.
-     *
-     * @param s El estado actual del juego.
-     * @return El mejor movimiento encontrado.
-     */
-    private Point miniMax(HexGameStatus s) {
-        double heuristicaActual = -30000;
-        double alpha = Double.NEGATIVE_INFINITY;
-        double beta = Double.POSITIVE_INFINITY;
-
-        List<Point> moviments = obtenirMoviments(s);
-        Point millorMoviment = null;
-
-        for (Point moviment : moviments) {
-            HexGameStatus aux = new HexGameStatus(s);
-            aux.placeStone(moviment);
-            nodesExplorats++;
-
-            double valorHeuristic = minValor(aux, profunditat - 1, alpha, beta);
-            if (valorHeuristic > heuristicaActual) {
-                heuristicaActual = valorHeuristic;
-                millorMoviment = moviment;
-            }
-
-            alpha = Math.max(alpha, heuristicaActual);
-        }
-
-        return millorMoviment;
-    }
-
-    /**
-     * Calcula el valor mínimo en el algoritmo MiniMax.
-     *
-     * @param s     El estado actual del juego.
-     * @param depth La profundidad restante de búsqueda.
-     * @param alpha El valor alpha para la poda alfa-beta.
-     * @param beta  El valor beta para la poda alfa-beta.
-     * @return El valor heurístico mínimo encontrado.
-     */
-    private double minValor(HexGameStatus s, int depth, double alpha, double beta) {
-        double valorHeuristic = 10000;
-        if (s.isGameOver()) {
-            return s.GetWinner() == jugadorMaxim ? 10000 : -10000;
-        }
-        if (depth == 0) return evaluateHeuristica(s);
-
-        List<Point> moviments = obtenirMoviments(s);
-        for (Point moviment : moviments) {
-            HexGameStatus aux = new HexGameStatus(s);
-            aux.placeStone(moviment);
-            nodesExplorats++;
-
-            double heuristicaActual = maxValor(aux, depth - 1, alpha, beta);
-            valorHeuristic = Math.min(valorHeuristic, heuristicaActual);
-            beta = Math.min(beta, valorHeuristic);
-
-            if (alpha >= beta) break;
-        }
-
-        return valorHeuristic;
-    }
-
-    /**
-     * Calcula el valor máximo en el algoritmo MiniMax.
-     *
-     * @param s     El estado actual del juego.
-     * @param depth La profundidad restante de búsqueda.
-     * @param alpha El valor alpha para la poda alfa-beta.
-     * @param beta  El valor beta para la poda alfa-beta.
-     * @return El valor heurístico máximo encontrado.
-     */
-    private double maxValor(HexGameStatus s, int depth, double alpha, double beta) {
-        double valorHeuristic = -10000;
-        if (s.isGameOver()) {
-            return s.GetWinner() == jugadorMinim ? -10000 : 10000;
-        }
-        if (depth == 0) return evaluateHeuristica(s);
-
-        List<Point> moviments = obtenirMoviments(s);
-        for (Point moviment : moviments) {
-            HexGameStatus aux = new HexGameStatus(s);
-            aux.placeStone(moviment);
-            nodesExplorats++;
-
-            double heuristicaActual = minValor(aux, depth - 1, alpha, beta);
-            valorHeuristic = Math.max(valorHeuristic, heuristicaActual);
-            alpha = Math.max(alpha, valorHeuristic);
-
-            if (alpha >= beta) break;
-        }
-
-        return valorHeuristic;
-    }
-
-    /**
-     * Obtiene la lista de movimientos posibles en el estado actual del juego.
-     *
-     * @param s El estado actual del juego.
-     * @return Una lista de puntos que representan los movimientos posibles.
-     */
-    private List<Point> obtenirMoviments(HexGameStatus s) {
-        List<Point> moviments = new ArrayList<>();
-        for (MoveNode node : s.getMoves()) {
-            moviments.add(node.getPoint());
-        }
-        return moviments;
-    }
-
-    /**
-     * Evalúa la heurística del estado actual del juego.
-     *
-     * @param s El estado actual del juego.
-     * @return El valor heurístico calculado.
-     */
-    private int evaluateHeuristica(HexGameStatus s) {
-        int myDistance = Heuristica.runDijkstra(s, getColor(jugadorMaxim)).shortestPath;
-        int opponentDistance = Heuristica.runDijkstra(s, getColor(jugadorMinim)).shortestPath;
-
-        int connectivityScore = (opponentDistance - myDistance) * 10;
-        return -myDistance + connectivityScore;
-    }
-
-    /**
-     * Obtiene el nombre del jugador.
-     *
-     * @return El nombre del jugador.
-     */
-    @Override
-    public String getName() {
-        return name;
-    }
-
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.*;
+import static edu.upc.epsevg.prop.hex.PlayerType.getColor;
+import java.awt.Point;
+
+/**
+ * Estrategia de jugador automático que implementa el algoritmo MiniMax para Hex.
+ * Utiliza una heurística basada en conexiones virtuales, puentes y semi-conexiones.
+ */
+public class PlayerMiniM implements IPlayer, IAuto {
+
+    /**
+     * Nombre del jugador.
+     */
+    private String name = "HexorcistaMiniMax";
+
+    /**
+     * Tipo de jugador que representa al jugador maximizado en el algoritmo MiniMax.
+     */
+    private PlayerType jugadorMaxim;
+
+    /**
+     * Tipo de jugador que representa al jugador minimizado en el algoritmo MiniMax.
+     */
+    private PlayerType jugadorMinim;
+
+    /**
+     * Profundidad máxima de búsqueda del algoritmo MiniMax.
+     */
+    private int profunditat;
+
+    /**
+     * Contador de nodos explorados durante la búsqueda.
+     */
+    private int nodesExplorats = 0;
+
+    /**
+     * Tablero interno sobre el que se hacen y deshacen las jugadas.
+     */
+    private HexBoard tauler;
+
+    /**
+     * Buffers de movimientos, uno por nivel de profundidad.
+     */
+    private int[][] moviments;
+
+    /**
+     * Evaluador reutilizable para la heurística de las hojas.
+     */
+    private HexEvaluator avaluador;
+
+    /**
+     * Constructor que inicializa el jugador con una profundidad específica.
+     *
+     * @param profunditat La profundidad máxima de búsqueda.
+     * @throws RuntimeException Si la profundidad es menor que 1.
+     */
+    public PlayerMiniM(int profunditat) {
+        if (profunditat < 1) throw new RuntimeException("La profundidad debe ser >= 1.");
+        this.profunditat = profunditat;
+    }
+
+    /**
+     * Método llamado cuando se produce un timeout. Este jugador no realiza ninguna acción en caso de timeout.
+     */
+    @Override
+    public void timeout() {
+        // No hacemos nada! Soy muy rápido y nunca hago timeout ;)
+    }
+
+    /**
+     * Determina el siguiente movimiento del jugador utilizando el algoritmo MiniMax.
+     *
+     * @param s El estado actual del juego.
+     * @return El movimiento elegido por el jugador.
+     */
+    @Override
+    public PlayerMove move(HexGameStatus s) {
+        nodesExplorats = 0;
+        jugadorMaxim = s.getCurrentPlayer();
+        jugadorMinim = PlayerType.opposite(jugadorMaxim);
+
+        tauler = new HexBoard(s);
+        int cells = s.getSize() * s.getSize();
+        if (moviments == null || moviments.length != profunditat || moviments[0].length != cells) {
+            moviments = new int[profunditat][cells];
+        }
+        if (avaluador == null || avaluador.getSize() != s.getSize()) {
+            avaluador = new HexEvaluator(s.getSize());
+        }
+
+        Point millorMoviment = miniMax();
+        return new PlayerMove(millorMoviment, nodesExplorats, profunditat, SearchType.MINIMAX);
+    }
+
+    /**
+     * Implementa el algoritmo MiniMax para determinar el mejor movimiento.
+     *
+     * @return El mejor movimiento encontrado.
+     */
+    private Point miniMax() {
+        double heuristicaActual = -30000;
+        double alpha = Double.NEGATIVE_INFINITY;
+        double beta = Double.POSITIVE_INFINITY;
+
+        int[] moviment = moviments[0];
+        int n = obtenirMoviments(moviment);
+        int millorMoviment = -1;
+
+        for (int i = 0; i < n; i++) {
+            tauler.play(moviment[i]);
+            nodesExplorats++;
+
+            double valorHeuristic = minValor(profunditat - 1, alpha, beta);
+            tauler.undo(moviment[i]);
+            if (valorHeuristic > heuristicaActual) {
+                heuristicaActual = valorHeuristic;
+                millorMoviment = moviment[i];
+            }
+
+            alpha = Math.max(alpha, heuristicaActual);
+        }
+
+        if (millorMoviment < 0) return null;
+        return new Point(millorMoviment / tauler.getSize(), millorMoviment % tauler.getSize());
+    }
+
+    /**
+     * Calcula el valor mínimo en el algoritmo MiniMax.
+     *
+     * @param depth La profundidad restante de búsqueda.
+     * @param alpha El valor alpha para la poda alfa-beta.
+     * @param beta  El valor beta para la poda alfa-beta.
+     * @return El valor heurístico mínimo encontrado.
+     */
+    private double minValor(int depth, double alpha, double beta) {
+        double valorHeuristic = 10000;
+        if (tauler.isGameOver()) {
+            return tauler.getWinnerColor() == getColor(jugadorMaxim) ? 10000 : -10000;
+        }
+        if (depth == 0) return evaluateHeuristica();
+
+        int[] moviment = moviments[profunditat - depth];
+        int n = obtenirMoviments(moviment);
+        for (int i = 0; i < n; i++) {
+            tauler.play(moviment[i]);
+            nodesExplorats++;
+
+            double heuristicaActual = maxValor(depth - 1, alpha, beta);
+            tauler.undo(moviment[i]);
+            valorHeuristic = Math.min(valorHeuristic, heuristicaActual);
+            beta = Math.min(beta, valorHeuristic);
+
+            if (alpha >= beta) break;
+        }
+
+        return valorHeuristic;
+    }
+
+    /**
+     * Calcula el valor máximo en el algoritmo MiniMax.
+     *
+     * @param depth La profundidad restante de búsqueda.
+     * @param alpha El valor alpha para la poda alfa-beta.
+     * @param beta  El valor beta para la poda alfa-beta.
+     * @return El valor heurístico máximo encontrado.
+     */
+    private double maxValor(int depth, double alpha, double beta) {
+        double valorHeuristic = -10000;
+        if (tauler.isGameOver()) {
+            return tauler.getWinnerColor() == getColor(jugadorMinim) ? -10000 : 10000;
+        }
+        if (depth == 0) return evaluateHeuristica();
+
+        int[] moviment = moviments[profunditat - depth];
+        int n = obtenirMoviments(moviment);
+        for (int i = 0; i < n; i++) {
+            tauler.play(moviment[i]);
+            nodesExplorats++;
+
+            double heuristicaActual = minValor(depth - 1, alpha, beta);
+            tauler.undo(moviment[i]);
+            valorHeuristic = Math.max(valorHeuristic, heuristicaActual);
+            alpha = Math.max(alpha, valorHeuristic);
+
+            if (alpha >= beta) break;
+        }
+
+        return valorHeuristic;
+    }
+
+    /**
+     * Escribe las celdas libres del tablero interno en el buffer indicado.
+     *
+     * @param moviment Buffer de destino.
+     * @return El número de movimientos posibles.
+     */
+    private int obtenirMoviments(int[] moviment) {
+        int n = 0;
+        int cells = tauler.getSize() * tauler.getSize();
+        for (int c = 0; c < cells; c++) {
+            if (tauler.getCell(c) == 0) {
+                moviment[n++] = c;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Evalúa la heurística del estado actual del tablero interno.
+     *
+     * @return El valor heurístico calculado.
+     */
+    private int evaluateHeuristica() {
+        avaluador.computeDistances(tauler);
+        int myDistance = avaluador.getDistance(getColor(jugadorMaxim));
+        int opponentDistance = avaluador.getDistance(getColor(jugadorMinim));
+
+        int connectivityScore = (opponentDistance - myDistance) * 10;
+        return -myDistance + connectivityScore;
+    }
+
+    /**
+     * Obtiene el nombre del jugador.
+     *
+     * @return El nombre del jugador.
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,398 @@
+package edu.upc.epsevg.prop.hex.players;
+
+/**
+ * Núcleo de partidas aleatorias de Hex sobre bitsets, para los jugadores de
+ * Monte Carlo.
+ *
+ * <p>Cada color es un bitset de {@code long} con un bit por celda (índice
+ * {@code x * size + y}, como en {@link HexTopology}). Una partida aleatoria
+ * saca las celdas vacías del bitset, elige con un Fisher-Yates parcial las
+ * {@code ceil(n / 2)} que tocan al jugador que mueve y da el resto al otro con
+ * una sola operación por palabra. No se comprueba la victoria jugada a jugada:
+ * un tablero lleno siempre tiene exactamente un ganador y un flood fill del
+ * jugador +1 desde la primera fila lo decide.</p>
+ *
+ * <p>El flood fill avanza todas las celdas a la vez: en cada paso el conjunto
+ * alcanzado se desplaza hacia sus seis vecinos ({@code ±1}, {@code ±size} y
+ * {@code ±(size - 1)} posiciones, con máscaras de columna para que los
+ * desplazamientos no salten de una fila a otra) y se interseca con las piedras
+ * del jugador. Termina al tocar la última fila o cuando deja de crecer.</p>
+ *
+ * <p>El generador aleatorio es un xorshift64 propio, mucho más barato que
+ * {@link java.util.Random} (sin sincronización) y suficiente para partidas
+ * aleatorias. Cada instancia tiene su estado y no es segura entre hilos: cada
+ * hilo debe usar la suya.</p>
+ */
+public final class PlayoutKernel {
+
+    /**
+     * Tamaño del tablero.
+     */
+    private final int size;
+
+    /**
+     * Número de celdas del tablero.
+     */
+    private final int cellCount;
+
+    /**
+     * Número de palabras de cada bitset. Los arrays tienen dos palabras más,
+     * a cero, en los extremos (índices {@code 0} y {@code words + 1}) para que
+     * los desplazamientos entre palabras no necesiten comprobar límites.
+     */
+    private final int words;
+
+    /**
+     * Todas las celdas del tablero.
+     */
+    private final long[] board;
+
+    /**
+     * Celdas que no están en la primera columna ({@code y > 0}).
+     */
+    private final long[] notFirstCol;
+
+    /**
+     * Celdas que no están en la última columna ({@code y < size - 1}).
+     */
+    private final long[] notLastCol;
+
+    /**
+     * Celdas de la primera fila ({@code x == 0}).
+     */
+    private final long[] topRow;
+
+    /**
+     * Celdas de la última fila ({@code x == size - 1}).
+     */
+    private final long[] bottomRow;
+
+    /**
+     * Piedras del jugador +1 y del jugador -1 en la posición base.
+     */
+    private final long[] baseFirst;
+    private final long[] baseSecond;
+
+    /**
+     * Piedras del jugador +1 y del jugador -1 en la posición de trabajo.
+     */
+    private final long[] first;
+    private final long[] second;
+
+    /**
+     * Conjunto alcanzado por el flood fill y sus partes sin la última y sin la
+     * primera columna.
+     */
+    private final long[] flood;
+    private final long[] floodNotLast;
+    private final long[] floodNotFirst;
+
+    /**
+     * Celdas vacías durante la partida aleatoria.
+     */
+    private final int[] empties;
+
+    /**
+     * Estado del generador xorshift64 (nunca 0).
+     */
+    private long seed;
+
+    /**
+     * Construye el núcleo de un tamaño de tablero.
+     *
+     * @param size Tamaño del tablero (de 2 a 63).
+     * @param seed Semilla del generador aleatorio.
+     * @throws IllegalArgumentException Si el tamaño no está soportado.
+     */
+    public PlayoutKernel(int size, long seed) {
+        if (size < 2 || size > 63) throw new IllegalArgumentException("Tamaño no soportado: " + size);
+        this.size = size;
+        this.cellCount = size * size;
+        this.words = (cellCount + 63) >>> 6;
+        int len = words + 2;
+        board = new long[len];
+        notFirstCol = new long[len];
+        notLastCol = new long[len];
+        topRow = new long[len];
+        bottomRow = new long[len];
+        baseFirst = new long[len];
+        baseSecond = new long[len];
+        first = new long[len];
+        second = new long[len];
+        flood = new long[len];
+        floodNotLast = new long[len];
+        floodNotFirst = new long[len];
+        empties = new int[cellCount];
+        for (int c = 0; c < cellCount; c++) {
+            int x = c / size;
+            int y = c % size;
+            setBit(board, c);
+            if (y > 0) setBit(notFirstCol, c);
+            if (y < size - 1) setBit(notLastCol, c);
+            if (x == 0) setBit(topRow, c);
+            if (x == size - 1) setBit(bottomRow, c);
+        }
+        this.seed = (seed != 0) ? seed : 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Fija la posición base y la copia en la posición de trabajo.
+     *
+     * @param cells Contenido de cada celda (1, -1 o 0), indexado por {@code x * size + y}.
+     */
+    public void setPosition(int[] cells) {
+        for (int i = 0; i < baseFirst.length; i++) {
+            baseFirst[i] = 0;
+            baseSecond[i] = 0;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            if (cells[c] == 1) {
+                setBit(baseFirst, c);
+            } else if (cells[c] == -1) {
+                setBit(baseSecond, c);
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Vuelve a la posición base.
+     */
+    public void reset() {
+        System.arraycopy(baseFirst, 0, first, 0, first.length);
+        System.arraycopy(baseSecond, 0, second, 0, second.length);
+    }
+
+    /**
+     * Coloca una piedra en la posición de trabajo.
+     *
+     * @param cell Celda vacía.
+     * @param color Color de la piedra (1 o -1).
+     */
+    public void play(int cell, int color) {
+        setBit((color == 1) ? first : second, cell);
+    }
+
+    /**
+     * Devuelve el contenido de una celda de la posición de trabajo. Tras
+     * {@link #playout} es el color final de la partida aleatoria.
+     *
+     * @param cell Celda.
+     * @return 1, -1 o 0 si está vacía.
+     */
+    public int get(int cell) {
+        int w = (cell >>> 6) + 1;
+        if ((first[w] >>> cell & 1) != 0) {
+            return 1;
+        }
+        return ((second[w] >>> cell & 1) != 0) ? -1 : 0;
+    }
+
+    /**
+     * Devuelve las celdas vacías de la posición de trabajo.
+     *
+     * @return Array nuevo con las celdas vacías en orden creciente.
+     */
+    public int[] emptyCells() {
+        int n = collectEmpties();
+        int[] out = new int[n];
+        System.arraycopy(empties, 0, out, 0, n);
+        return out;
+    }
+
+    /**
+     * Devuelve un entero aleatorio uniforme en {@code [0, bound)}.
+     *
+     * @param bound Límite superior exclusivo (positivo).
+     * @return Entero aleatorio.
+     */
+    public int nextInt(int bound) {
+        long x = seed;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        seed = x;
+        // Reducción por multiplicación de los 32 bits altos, sin división.
+        return (int) (((x >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Llena al azar las celdas vacías de la posición de trabajo y devuelve el
+     * ganador. Las primeras {@code ceil(n / 2)} celdas de una permutación
+     * aleatoria de las vacías son para el jugador que mueve y el resto para
+     * el otro, igual que si jugaran por turnos hasta llenar el tablero.
+     *
+     * @param color Color del jugador que mueve.
+     * @return Color del ganador.
+     */
+    public int playout(int color) {
+        int n = collectEmpties();
+        long[] mine = (color == 1) ? first : second;
+        long[] other = (color == 1) ? second : first;
+        int count = (n + 1) >>> 1;
+        for (int i = 0; i < count; i++) {
+            int j = i + nextInt(n - i);
+            int cell = empties[j];
+            empties[j] = empties[i];
+            mine[(cell >>> 6) + 1] |= 1L << cell;
+        }
+        for (int i = 1; i <= words; i++) {
+            other[i] |= board[i] & ~(first[i] | second[i]);
+        }
+        return firstPlayerConnects() ? 1 : -1;
+    }
+
+    /**
+     * Comprueba con un flood fill de bitsets si las piedras del jugador +1
+     * unen la primera fila con la última en la posición de trabajo.
+     *
+     * @return {@code true} si gana el jugador +1.
+     */
+    private boolean firstPlayerConnects() {
+        if (words == 2) {
+            return firstPlayerConnects2();
+        }
+        if (words == 1) {
+            return firstPlayerConnects1();
+        }
+        long[] f = flood;
+        long[] fl = floodNotLast;
+        long[] ff = floodNotFirst;
+        int s = size;
+        int up = 64 - s;
+        int diag = s - 1;
+        int diagUp = 65 - s;
+        for (int i = 1; i <= words; i++) {
+            f[i] = first[i] & topRow[i];
+        }
+        while (true) {
+            for (int i = 1; i <= words; i++) {
+                fl[i] = f[i] & notLastCol[i];
+                ff[i] = f[i] & notFirstCol[i];
+            }
+            boolean grown = false;
+            for (int i = 1; i <= words; i++) {
+                // Vecinos (0,+1), (0,-1), (+1,0), (-1,0), (-1,+1) y (+1,-1).
+                long g = f[i]
+                        | (fl[i] << 1) | (fl[i - 1] >>> 63)
+                        | (ff[i] >>> 1) | (ff[i + 1] << 63)
+                        | (f[i] << s) | (f[i - 1] >>> up)
+                        | (f[i] >>> s) | (f[i + 1] << up)
+                        | (fl[i] >>> diag) | (fl[i + 1] << diagUp)
+                        | (ff[i] << diag) | (ff[i - 1] >>> diagUp);
+                g &= first[i];
+                if ((g & bottomRow[i]) != 0) {
+                    return true;
+                }
+                if (g != f[i]) {
+                    f[i] = g;
+                    grown = true;
+                }
+            }
+            if (!grown) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * {@link #firstPlayerConnects()} para tableros de una palabra (hasta 8x8),
+     * con el bitset en variables locales.
+     *
+     * @return {@code true} si gana el jugador +1.
+     */
+    private boolean firstPlayerConnects1() {
+        int s = size;
+        int diag = s - 1;
+        long stones = first[1];
+        long notLast = notLastCol[1];
+        long notFirst = notFirstCol[1];
+        long bottom = bottomRow[1];
+        long f = stones & topRow[1];
+        while (true) {
+            long l = f & notLast;
+            long r = f & notFirst;
+            long g = (f | (l << 1) | (r >>> 1) | (f << s) | (f >>> s) | (l >>> diag) | (r << diag)) & stones;
+            if ((g & bottom) != 0) {
+                return true;
+            }
+            if (g == f) {
+                return false;
+            }
+            f = g;
+        }
+    }
+
+    /**
+     * {@link #firstPlayerConnects()} para tableros de dos palabras (de 9x9 a
+     * 11x11), con el bitset en variables locales.
+     *
+     * @return {@code true} si gana el jugador +1.
+     */
+    private boolean firstPlayerConnects2() {
+        int s = size;
+        int up = 64 - s;
+        int diag = s - 1;
+        int diagUp = 65 - s;
+        long stones0 = first[1];
+        long stones1 = first[2];
+        long notLast0 = notLastCol[1];
+        long notLast1 = notLastCol[2];
+        long notFirst0 = notFirstCol[1];
+        long notFirst1 = notFirstCol[2];
+        long bottom0 = bottomRow[1];
+        long bottom1 = bottomRow[2];
+        long f0 = stones0 & topRow[1];
+        long f1 = stones1 & topRow[2];
+        while (true) {
+            long l0 = f0 & notLast0;
+            long l1 = f1 & notLast1;
+            long r0 = f0 & notFirst0;
+            long r1 = f1 & notFirst1;
+            long g0 = f0 | (l0 << 1) | (r0 >>> 1) | (r1 << 63)
+                    | (f0 << s) | (f0 >>> s) | (f1 << up)
+                    | (l0 >>> diag) | (l1 << diagUp) | (r0 << diag);
+            long g1 = f1 | (l1 << 1) | (l0 >>> 63) | (r1 >>> 1)
+                    | (f1 << s) | (f0 >>> up) | (f1 >>> s)
+                    | (l1 >>> diag) | (r1 << diag) | (r0 >>> diagUp);
+            g0 &= stones0;
+            g1 &= stones1;
+            if (((g0 & bottom0) | (g1 & bottom1)) != 0) {
+                return true;
+            }
+            if (g0 == f0 && g1 == f1) {
+                return false;
+            }
+            f0 = g0;
+            f1 = g1;
+        }
+    }
+
+    /**
+     * Guarda en {@link #empties} las celdas vacías de la posición de trabajo.
+     *
+     * @return Número de celdas vacías.
+     */
+    private int collectEmpties() {
+        int n = 0;
+        for (int i = 1; i <= words; i++) {
+            long e = board[i] & ~(first[i] | second[i]);
+            int base = (i - 1) << 6;
+            while (e != 0) {
+                empties[n++] = base + Long.numberOfTrailingZeros(e);
+                e &= e - 1;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Activa el bit de una celda en un bitset.
+     *
+     * @param bits Bitset (con las palabras de los extremos).
+     * @param cell Celda.
+     */
+    private static void setBit(long[] bits, int cell) {
+        bits[(cell >>> 6) + 1] |= 1L << cell;
+    }
+}
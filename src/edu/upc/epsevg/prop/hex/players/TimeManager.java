@@ -0,0 +1,255 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import java.awt.Point;
+
+/**
+ * Gestión del tiempo de {@link PlayerID}: decide tras cada iteración del
+ * Iterative Deepening si vale la pena empezar la siguiente.
+ *
+ * <p>Cada movimiento tiene dos límites. El límite duro no se supera nunca (el
+ * jugador se detiene solo al alcanzarlo, como si hubiera recibido el timeout)
+ * y el blando es el tiempo que se quiere gastar normalmente. Sin reloj de
+ * partida el límite duro es el tiempo por movimiento y el blando la mitad; con
+ * reloj de partida el blando es el tiempo restante repartido entre las jugadas
+ * que faltan (la mitad de las celdas vacías) y el duro, el triple del blando
+ * sin pasar del tiempo por movimiento ni de la mitad del tiempo restante.</p>
+ *
+ * <p>El coste de la siguiente iteración se predice multiplicando la duración
+ * de la última por el factor de ramificación efectivo, medido con las
+ * duraciones de las últimas iteraciones. Una iteración no se empieza si no
+ * cabría al menos la mitad antes del límite duro. No se exige que quepa
+ * entera porque, aunque su jugada se descarte, lo que deja en la tabla de
+ * transposición lo aprovecha el movimiento siguiente. Si la mejor jugada no
+ * ha cambiado en las últimas {@link #STABLE_ITERATIONS} iteraciones, se usa
+ * el límite blando en su lugar y el jugador devuelve la jugada antes.</p>
+ *
+ * <p>Las consultas llegan desde el hilo que busca y el inicio y el final de
+ * cada movimiento desde el que llama a {@link PlayerID#move}, por lo que los
+ * métodos están sincronizados (se llaman una vez por iteración).</p>
+ */
+public class TimeManager {
+
+    /**
+     * Iteraciones seguidas con la misma mejor jugada a partir de las cuales se
+     * considera estable.
+     */
+    static final int STABLE_ITERATIONS = 3;
+
+    /**
+     * Factor de ramificación efectivo que se supone mientras no hay dos
+     * iteraciones medidas.
+     */
+    private static final double DEFAULT_BRANCHING = 4.0;
+
+    /**
+     * Límites del factor de ramificación medido, para que las iteraciones
+     * casi instantáneas no den predicciones absurdas.
+     */
+    private static final double MIN_BRANCHING = 1.5;
+    private static final double MAX_BRANCHING = 16.0;
+
+    /**
+     * Parte de la siguiente iteración que debe caber en el límite para
+     * empezarla.
+     */
+    private static final double START_FRACTION = 0.5;
+
+    /**
+     * Tiempo máximo por movimiento en milisegundos.
+     */
+    private final long moveMillis;
+
+    /**
+     * Tiempo total por partida en milisegundos, o 0 si no hay reloj de partida.
+     */
+    private final long gameMillis;
+
+    /**
+     * Tiempo que queda del reloj de partida.
+     */
+    private long remainingMillis;
+
+    /**
+     * Número de piedras del tablero en el último movimiento, para detectar
+     * el inicio de una partida nueva.
+     */
+    private int lastStones = Integer.MAX_VALUE;
+
+    /**
+     * Inicio del movimiento actual ({@link System#nanoTime()}).
+     */
+    private long startNanos;
+
+    /**
+     * Final de la última iteración completada (o inicio del movimiento).
+     */
+    private long lastIterationEnd;
+
+    /**
+     * Duración de la última iteración completada, o 0.
+     */
+    private long lastIterationNanos;
+
+    /**
+     * Duración de la iteración anterior a la última, o 0.
+     */
+    private long prevIterationNanos;
+
+    /**
+     * Duración de la iteración de dos antes de la última, o 0.
+     */
+    private long olderIterationNanos;
+
+    /**
+     * Límite blando del movimiento actual en milisegundos.
+     */
+    private long softMillis;
+
+    /**
+     * Límite duro del movimiento actual en milisegundos.
+     */
+    private long hardMillis;
+
+    /**
+     * Mejor jugada de la última iteración completada.
+     */
+    private Point lastBest;
+
+    /**
+     * Iteraciones seguidas que han devuelto {@link #lastBest}.
+     */
+    private int stableIterations;
+
+    /**
+     * Construye un gestor sin reloj de partida.
+     *
+     * @param moveMillis Tiempo máximo por movimiento en milisegundos; debe
+     *        dejar margen respecto al timeout del juego.
+     * @throws IllegalArgumentException Si el tiempo no es positivo.
+     */
+    public TimeManager(long moveMillis) {
+        this(moveMillis, 0);
+    }
+
+    /**
+     * Construye un gestor con reloj de partida.
+     *
+     * @param moveMillis Tiempo máximo por movimiento en milisegundos.
+     * @param gameMillis Tiempo total de cada partida en milisegundos, o 0 si no hay reloj.
+     * @throws IllegalArgumentException Si algún tiempo no es válido.
+     */
+    public TimeManager(long moveMillis, long gameMillis) {
+        if (moveMillis <= 0) throw new IllegalArgumentException("El tiempo por movimiento debe ser > 0.");
+        if (gameMillis < 0) throw new IllegalArgumentException("El tiempo por partida no puede ser negativo.");
+        this.moveMillis = moveMillis;
+        this.gameMillis = gameMillis;
+        this.remainingMillis = gameMillis;
+    }
+
+    /**
+     * Empieza a contar el tiempo de un movimiento y calcula sus límites a
+     * partir del número de jugada. Si el tablero tiene menos piedras que en el
+     * movimiento anterior, empieza una partida y el reloj se reinicia.
+     *
+     * @param gs Estado sobre el que se va a mover.
+     */
+    synchronized void startMove(HexGameStatus gs) {
+        int size = gs.getSize();
+        int empty = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (gs.getPos(i, j) == 0) {
+                    empty++;
+                }
+            }
+        }
+        int stones = size * size - empty;
+        if (stones < lastStones) {
+            remainingMillis = gameMillis;
+        }
+        lastStones = stones;
+
+        if (gameMillis > 0) {
+            int movesToGo = Math.max(1, (empty + 1) / 2);
+            softMillis = Math.max(1, remainingMillis / movesToGo);
+            hardMillis = Math.min(moveMillis, Math.min(3 * softMillis, remainingMillis / 2));
+            hardMillis = Math.max(1, hardMillis);
+            softMillis = Math.min(softMillis, hardMillis);
+        } else {
+            hardMillis = moveMillis;
+            softMillis = moveMillis / 2;
+        }
+
+        startNanos = System.nanoTime();
+        lastIterationEnd = startNanos;
+        lastIterationNanos = 0;
+        prevIterationNanos = 0;
+        olderIterationNanos = 0;
+        lastBest = null;
+        stableIterations = 0;
+    }
+
+    /**
+     * Termina el movimiento actual y descuenta su tiempo del reloj de partida.
+     */
+    synchronized void endMove() {
+        if (gameMillis > 0) {
+            long used = (System.nanoTime() - startNanos) / 1_000_000;
+            remainingMillis = Math.max(0, remainingMillis - used);
+        }
+    }
+
+    /**
+     * Devuelve el límite duro del movimiento actual, tras el cual la búsqueda
+     * se interrumpe.
+     *
+     * @return Milisegundos desde {@link #startMove}.
+     */
+    synchronized long getHardMillis() {
+        return hardMillis;
+    }
+
+    /**
+     * Registra una iteración completada y decide si se empieza la siguiente.
+     *
+     * @param best Mejor jugada de la iteración.
+     * @return {@code true} si la siguiente iteración cabe en el tiempo disponible.
+     */
+    synchronized boolean iterationDone(Point best) {
+        long now = System.nanoTime();
+        olderIterationNanos = prevIterationNanos;
+        prevIterationNanos = lastIterationNanos;
+        lastIterationNanos = now - lastIterationEnd;
+        lastIterationEnd = now;
+        if (best.equals(lastBest)) {
+            stableIterations++;
+        } else {
+            lastBest = best;
+            stableIterations = 1;
+        }
+
+        double branching = DEFAULT_BRANCHING;
+        if (prevIterationNanos > 0) {
+            branching = (double) lastIterationNanos / prevIterationNanos;
+            if (olderIterationNanos > 0) {
+                // Las profundidades pares e impares cuestan de forma desigual: 
+                // se usa la media geométrica de los dos últimos cocientes.
+                branching = Math.sqrt((double) lastIterationNanos / olderIterationNanos);
+            }
+            branching = Math.min(MAX_BRANCHING, Math.max(MIN_BRANCHING, branching));
+        }
+        double predicted = (now - startNanos) + START_FRACTION * lastIterationNanos * branching;
+        long limit = (stableIterations >= STABLE_ITERATIONS) ? softMillis : hardMillis;
+        return predicted <= limit * 1_000_000.0;
+    }
+
+    /**
+     * Devuelve el tiempo que queda del reloj de partida.
+     *
+     * @return Milisegundos restantes, o 0 si no hay reloj de partida.
+     */
+    public synchronized long getRemainingMillis() {
+        return remainingMillis;
+    }
+}
@@ -0,0 +1,459 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tabla de transposición de tamaño fijo reservada fuera del heap al
+ * construirla.
+ *
+ * <p>La memoria se obtiene con {@link ByteBuffer#allocateDirect} en segmentos
+ * de como máximo 1 GB, de modo que la tabla puede ocupar varios gigabytes sin
+ * que el heap crezca ni el recolector de basura tenga que copiarla o
+ * recorrerla: sus pausas no dependen del tamaño de la tabla. La JVM limita la
+ * memoria directa con {@code -XX:MaxDirectMemorySize} (por defecto, el tamaño
+ * máximo del heap), que debe ajustarse para tablas mayores que el heap.</p>
+ *
+ * <p>La tabla se divide en cubetas de dos entradas: la primera se reemplaza
+ * preferentemente por profundidad (sólo la sobrescribe un resultado igual o más
+ * profundo, o uno de una búsqueda más reciente) y la segunda se reemplaza
+ * siempre. Cada cubeta ocupa 64 bytes y cada segmento empieza en una
+ * dirección múltiplo de 64, de modo que las cubetas quedan alineadas con las
+ * líneas de caché y una consulta sólo provoca un fallo de caché. Cada entrada ocupa
+ * tres {@code long}: la clave Zobrist completa,
+ * una clave de verificación independiente y un campo de datos empaquetado con
+ * el valor, la profundidad, la generación, el tipo de cota del valor y la
+ * mejor jugada encontrada.</p>
+ *
+ * <p>Una entrada sólo se da por encontrada si coinciden las dos claves (128
+ * bits). Si coincide la clave Zobrist pero no la de verificación se trata de
+ * una colisión: se ignora la entrada y se contabiliza en {@link #getCollisions()}.</p>
+ *
+ * <p>La profundidad guardada es la profundidad restante con la que se buscó
+ * la posición y el valor es desde el punto de vista del jugador que mueve.
+ * Como la evaluación de {@link PlayerID} es antisimétrica (cambiar el color
+ * de la raíz sólo cambia el signo), una entrada no depende de la raíz ni del
+ * color del jugador que la escribió.
+ * La generación se incrementa con {@link #newSearch()} al empezar cada
+ * movimiento. Las entradas de generaciones anteriores se siguen encontrando al
+ * consultarlas (los subárboles buscados en el movimiento anterior se reutilizan
+ * en el siguiente), pero son las primeras en reemplazarse, de modo que la
+ * tabla envejece sin recorrerla y su memoria permanece constante durante todo
+ * el torneo.</p>
+ *
+ * <p>La tabla se puede compartir entre varios hilos de búsqueda sin cerrojos
+ * ni operaciones atómicas. Las dos claves se guardan combinadas por XOR con el
+ * campo de datos ({@code key ^ data} y {@code check ^ data}); si dos hilos
+ * escriben a la vez la misma entrada y un lector ve palabras de escrituras
+ * distintas, al deshacer el XOR las claves no coinciden y la entrada se trata
+ * como ausente. Los contadores de estadísticas usan {@link LongAdder}.</p>
+ *
+ * <p>Por el mismo motivo una tabla puede pasar de un jugador a otro (ver
+ * {@link PlayerID#PlayerID(TranspositionTable, PlayerID.Search)}) y
+ * conservarse entre las partidas de un torneo: se reserva una sola vez y las
+ * entradas antiguas se van reemplazando por las nuevas.</p>
+ */
+public class TranspositionTable {
+
+    /**
+     * El valor almacenado es exacto (la búsqueda terminó dentro de la ventana).
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * El valor almacenado es una cota inferior (se produjo un corte beta).
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * El valor almacenado es una cota superior (ninguna jugada superó alpha).
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * Resultado de {@link #probe} cuando la posición no está en la tabla. Nunca
+     * coincide con datos válidos porque la generación de éstos es al menos 1.
+     */
+    public static final long MISS = 0L;
+
+    /**
+     * Número de {@code long} que ocupa cada entrada (clave, verificación y datos).
+     */
+    private static final int LONGS_PER_ENTRY = 3;
+
+    /**
+     * Número de {@code long} que ocupa cada cubeta: dos entradas y dos de 
+     * relleno hasta los 64 bytes de una línea de caché.
+     */
+    private static final int LONGS_PER_BUCKET = 8;
+
+    /**
+     * Bytes de una línea de caché, a los que se alinea el inicio de cada segmento.
+     */
+    private static final int CACHE_LINE = 64;
+
+    /**
+     * Número máximo de cubetas (32 GB).
+     */
+    private static final long MAX_BUCKETS = 1L << 29;
+
+    /**
+     * Logaritmo en base 2 del número de {@code long} de cada segmento (1 GB).
+     */
+    private static final int SEGMENT_SHIFT = 27;
+
+    /**
+     * Máscara para obtener la posición dentro de un segmento.
+     */
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /**
+     * Desplazamiento del campo de profundidad dentro de los datos.
+     */
+    private static final int DEPTH_SHIFT = 32;
+
+    /**
+     * Desplazamiento del campo de generación dentro de los datos.
+     */
+    private static final int GENERATION_SHIFT = 40;
+
+    /**
+     * Desplazamiento del campo de tipo de cota dentro de los datos.
+     */
+    private static final int BOUND_SHIFT = 48;
+
+    /**
+     * Desplazamiento del campo de mejor jugada dentro de los datos.
+     */
+    private static final int MOVE_SHIFT = 50;
+
+    /**
+     * Máscara de 8 bits para la profundidad y la generación.
+     */
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * Máscara de 2 bits para el tipo de cota.
+     */
+    private static final int BOUND_MASK = 0x3;
+
+    /**
+     * Máscara de 14 bits para la mejor jugada (índice de celda + 1).
+     */
+    private static final int MOVE_MASK = 0x3FFF;
+
+    /**
+     * Almacenamiento de las entradas, fuera del heap y dividido en segmentos:
+     * por cada cubeta, clave, verificación y datos de la entrada por
+     * profundidad seguidos de los de la entrada de reemplazo. Las dos claves
+     * se guardan combinadas por XOR con los datos.
+     */
+    private final LongBuffer[] segments;
+
+    /**
+     * Tamaño total reservado, en bytes.
+     */
+    private final long sizeBytes;
+
+    /**
+     * Máscara para obtener el índice de cubeta a partir de la clave.
+     */
+    private final long bucketMask;
+
+    /**
+     * Generación actual (1..255). El valor 0 se reserva para las entradas vacías.
+     */
+    private volatile int generation;
+
+    /**
+     * Número de consultas realizadas desde el último {@link #resetStats()}.
+     */
+    private final LongAdder probes = new LongAdder();
+
+    /**
+     * Número de consultas que encontraron la posición.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Número de consultas en las que coincidió la clave Zobrist pero no la de
+     * verificación (posiciones distintas con la misma clave de 64 bits).
+     */
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Construye una tabla que ocupa como máximo {@code sizeMB} megabytes. El
+     * número de cubetas se redondea a la potencia de dos inferior y se limita
+     * a 32 GB; si se pide más se avisa por el log.
+     *
+     * @param sizeMB Tamaño de la tabla en megabytes.
+     * @throws IllegalArgumentException Si el tamaño es menor que 1.
+     * @throws OutOfMemoryError Si la JVM no permite reservar tanta memoria directa.
+     */
+    public TranspositionTable(int sizeMB) {
+        if (sizeMB < 1) throw new IllegalArgumentException("El tamaño de la tabla debe ser >= 1 MB.");
+        long bytes = (long) sizeMB * 1024 * 1024;
+        long buckets = Long.highestOneBit(bytes / (LONGS_PER_BUCKET * Long.BYTES));
+        if (buckets > MAX_BUCKETS) {
+            Logger.getLogger(TranspositionTable.class.getName()).log(Level.WARNING,
+                    "Tabla de transposición de {0} MB limitada a {1} MB.",
+                    new Object[]{sizeMB, MAX_BUCKETS * LONGS_PER_BUCKET * Long.BYTES / (1024 * 1024)});
+            buckets = MAX_BUCKETS;
+        }
+
+        long longs = buckets * LONGS_PER_BUCKET;
+        int count = (int) ((longs + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        this.segments = new LongBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long segmentLongs = Math.min(longs - ((long) i << SEGMENT_SHIFT), 1L << SEGMENT_SHIFT);
+            // La memoria directa llega a cero, como la de un array nuevo. allocateDirect no garantiza
+            // ninguna alineación: se reservan 63 bytes de más y se toma el trozo alineado a 64.
+            segments[i] = ByteBuffer.allocateDirect((int) (segmentLongs * Long.BYTES) + CACHE_LINE - 1)
+                    .alignedSlice(CACHE_LINE)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+        this.sizeBytes = longs * Long.BYTES;
+        this.bucketMask = buckets - 1;
+        this.generation = 1;
+    }
+
+    /**
+     * Devuelve la memoria reservada por la tabla.
+     *
+     * @return Tamaño en bytes.
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Indica el inicio de una nueva búsqueda. Las entradas anteriores siguen
+     * siendo visibles pero pasan a ser reemplazables por cualquier resultado nuevo.
+     */
+    public void newSearch() {
+        generation = (generation % BYTE_MASK) + 1;
+    }
+
+    /**
+     * Busca la entrada asociada a una posición, sea de la generación que sea.
+     *
+     * <p>Devuelve una copia de los datos y no el índice de la entrada: con
+     * varios hilos, la entrada podría reescribirse entre la consulta y la
+     * lectura de sus campos. Los campos se extraen con {@link #scoreOf},
+     * {@link #depthOf}, {@link #boundOf} y {@link #moveOf}.</p>
+     *
+     * @param key Clave Zobrist de la posición.
+     * @param check Clave de verificación de la posición.
+     * @return Datos empaquetados de la entrada, o {@link #MISS} si no se encuentra.
+     */
+    public long probe(long key, long check) {
+        probes.increment();
+        long data = find(key, check, true);
+        if (data != MISS) {
+            hits.increment();
+        }
+        return data;
+    }
+
+    /**
+     * Busca una entrada sin actualizar las estadísticas de consultas ni de hits.
+     *
+     * @param key Clave Zobrist de la posición.
+     * @param check Clave de verificación de la posición.
+     * @param countCollisions Si las colisiones encontradas se suman a
+     *        {@link #getCollisions()}; sólo en las consultas de {@link #probe}.
+     * @return Datos empaquetados de la entrada, o {@link #MISS} si no se encuentra.
+     */
+    private long find(long key, long check, boolean countCollisions) {
+        long bucket = bucketIndex(key);
+        LongBuffer seg = segments[(int) (bucket >>> SEGMENT_SHIFT)];
+        int base = (int) (bucket & SEGMENT_MASK);
+        for (int i = base; i < base + 2 * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+            long data = seg.get(i + 2);
+            if ((seg.get(i) ^ data) == key && data != MISS) {
+                if ((seg.get(i + 1) ^ data) == check) {
+                    return data;
+                }
+                if (countCollisions) {
+                    collisions.increment();
+                }
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Extrae el valor de los datos devueltos por {@link #probe}.
+     *
+     * @param data Datos empaquetados.
+     * @return Valor de evaluación almacenado.
+     */
+    public static int scoreOf(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Extrae la profundidad de los datos devueltos por {@link #probe}.
+     *
+     * @param data Datos empaquetados.
+     * @return Profundidad restante con la que se calculó el valor.
+     */
+    public static int depthOf(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+
+    /**
+     * Extrae el tipo de cota de los datos devueltos por {@link #probe}.
+     *
+     * @param data Datos empaquetados.
+     * @return {@link #EXACT}, {@link #LOWER} o {@link #UPPER}.
+     */
+    public static int boundOf(long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    /**
+     * Extrae la mejor jugada de los datos devueltos por {@link #probe}.
+     *
+     * @param data Datos empaquetados.
+     * @return Índice de celda ({@code x * size + y}) de la jugada, o -1 si no hay.
+     */
+    public static int moveOf(long data) {
+        return (int) (data >>> MOVE_SHIFT) - 1;
+    }
+
+    /**
+     * Almacena un resultado en la tabla.
+     *
+     * <p>La entrada por profundidad se sobrescribe si está vacía, es de otra
+     * generación, corresponde a la misma posición o tiene una profundidad menor
+     * o igual; en ese caso su contenido anterior se desplaza a la entrada de
+     * reemplazo. En otro caso el resultado va directamente a la entrada de
+     * reemplazo.</p>
+     *
+     * <p>Si no se indica jugada y la posición ya tenía una guardada, se conserva
+     * la anterior para seguir usándola en la ordenación.</p>
+     *
+     * @param key Clave Zobrist de la posición.
+     * @param check Clave de verificación de la posición.
+     * @param score Valor de evaluación.
+     * @param depth Profundidad restante con la que se calculó (se satura a 255).
+     * @param bound Tipo de cota del valor: {@link #EXACT}, {@link #LOWER} o {@link #UPPER}.
+     * @param move Índice de celda de la mejor jugada, o -1 si no se conoce.
+     */
+    public void store(long key, long check, int score, int depth, int bound, int move) {
+        long bucket = bucketIndex(key);
+        LongBuffer seg = segments[(int) (bucket >>> SEGMENT_SHIFT)];
+        int base = (int) (bucket & SEGMENT_MASK);
+        if (move < 0) {
+            long old = find(key, check, false);
+            if (old != MISS) {
+                move = moveOf(old);
+            }
+        }
+        long data = pack(score, depth, bound, move);
+
+        long oldData = seg.get(base + 2);
+        long oldKey = seg.get(base) ^ oldData;
+        long oldCheck = seg.get(base + 1) ^ oldData;
+        boolean samePosition = oldKey == key && oldCheck == check;
+        boolean replaceDeep = generationOf(oldData) != generation
+                || samePosition
+                || depth >= depthOf(oldData);
+
+        int target = base + LONGS_PER_ENTRY;
+        if (replaceDeep) {
+            if (!samePosition && generationOf(oldData) == generation) {
+                seg.put(target, oldKey ^ oldData);
+                seg.put(target + 1, oldCheck ^ oldData);
+                seg.put(target + 2, oldData);
+            }
+            target = base;
+        }
+        seg.put(target, key ^ data);
+        seg.put(target + 1, check ^ data);
+        seg.put(target + 2, data);
+    }
+
+    /**
+     * Devuelve el número de consultas realizadas desde el último {@link #resetStats()}.
+     *
+     * @return Número de consultas.
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * Devuelve el número de consultas que encontraron la posición buscada.
+     *
+     * @return Número de aciertos.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Devuelve el número de colisiones detectadas por la clave de verificación
+     * en las consultas de {@link #probe}.
+     * Cada una es un acierto falso que, sin verificación, se habría reutilizado.
+     *
+     * @return Número de colisiones.
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Pone a cero los contadores de consultas, aciertos y colisiones.
+     */
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+    }
+
+    /**
+     * Calcula la posición de la cubeta que corresponde a una clave.
+     *
+     * @param key Clave Zobrist.
+     * @return Índice global del primer {@code long} de la cubeta.
+     */
+    private long bucketIndex(long key) {
+        return (key & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    /**
+     * Empaqueta valor, profundidad, generación actual, cota y jugada en un
+     * único {@code long}.
+     *
+     * @param score Valor de evaluación.
+     * @param depth Profundidad.
+     * @param bound Tipo de cota.
+     * @param move Índice de celda de la jugada, o -1.
+     * @return Datos empaquetados.
+     */
+    private long pack(int score, int depth, int bound, int move) {
+        long d = Math.min(Math.max(depth, 0), BYTE_MASK);
+        return (score & 0xFFFFFFFFL)
+                | (d << DEPTH_SHIFT)
+                | ((long) generation << GENERATION_SHIFT)
+                | ((long) (bound & BOUND_MASK) << BOUND_SHIFT)
+                | ((long) ((move + 1) & MOVE_MASK) << MOVE_SHIFT);
+    }
+
+    /**
+     * Extrae la generación de unos datos empaquetados.
+     *
+     * @param data Datos empaquetados.
+     * @return Generación almacenada (0 si la entrada está vacía).
+     */
+    private static int generationOf(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & BYTE_MASK;
+    }
+}
@@ -0,0 +1,513 @@
+package edu.upc.epsevg.prop.hex.players;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Búsqueda alpha-beta paralela con el esquema <i>Young Brothers Wait</i>
+ * (YBWC) sobre un {@link ForkJoinPool}, usada por {@link PlayerID} con
+ * {@link PlayerID.Search#YBWC}.
+ *
+ * <p>La búsqueda es negamax con la misma tabla de transposición, evaluación y
+ * ordenación que la secuencial. En cada nodo con profundidad restante de al
+ * menos {@link #MIN_SPLIT_DEPTH} se busca primero el hermano mayor (la primera
+ * jugada) en el propio hilo; sólo cuando ha terminado sin corte se reparten
+ * los hermanos menores como tareas del pool, que los hilos libres roban. Cada
+ * tarea trabaja sobre su propia copia del tablero.</p>
+ *
+ * <p>Los tableros y buffers de las tareas ({@link Context}) se reutilizan:
+ * cada hilo guarda los que ha liberado y los vuelve a usar en lugar de
+ * reservar memoria. La tabla de historia es común a todas las tareas, para que
+ * los hermanos repartidos no empiecen con la ordenación en frío.</p>
+ *
+ * <p>Los hermanos de un reparto comparten la ventana a través de un
+ * {@link Split}: cada tarea lee el mejor valor encontrado hasta el momento al
+ * empezar y, si alguna provoca un corte, las demás lo ven y abandonan. Lo
+ * mismo ocurre con la bandera de timeout del jugador, que se consulta en
+ * cada nodo.</p>
+ */
+class YbwcSearch {
+
+    /**
+     * Profundidad restante mínima para repartir los hermanos menores. Por
+     * debajo, el coste de crear la tarea supera al de buscar el subárbol.
+     */
+    private static final int MIN_SPLIT_DEPTH = 2;
+
+    /**
+     * Jugador propietario, del que se lee la bandera de timeout.
+     */
+    private final PlayerID owner;
+
+    /**
+     * Tabla de transposición compartida por todas las tareas.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * Pool de hilos de la búsqueda.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Nodos hoja evaluados por todas las tareas.
+     */
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * Número de repartos de hermanos menores realizados.
+     */
+    private final LongAdder splits = new LongAdder();
+
+    /**
+     * Contextos libres de cada hilo. Se usan como pila porque un hilo que
+     * espera a sus tareas puede ejecutar otras anidadas.
+     */
+    private final ThreadLocal<ArrayDeque<Context>> freeContexts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Tabla de historia compartida por todas las tareas.
+     */
+    private int[][] history = new int[2][0];
+
+    /**
+     * Número de búsquedas empezadas con {@link #newSearch}. Un contexto de
+     * una búsqueda anterior se prepara para la actual al reutilizarlo.
+     */
+    private int generation;
+
+    /**
+     * Si los contextos usan killers e historia (ver {@link MoveOrdering#setEnabled}).
+     */
+    private boolean orderingEnabled = true;
+
+    /**
+     * Color del jugador que busca.
+     */
+    private int myColor;
+
+    /**
+     * Valor de la raíz de la última búsqueda.
+     */
+    private int rootValue;
+
+    /**
+     * Construye la búsqueda con un pool del número de hilos indicado.
+     *
+     * @param owner Jugador propietario.
+     * @param transpositionTable Tabla de transposición compartida.
+     * @param threads Número de hilos del pool.
+     */
+    YbwcSearch(PlayerID owner, TranspositionTable transpositionTable, int threads) {
+        this.owner = owner;
+        this.transpositionTable = transpositionTable;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Libera los hilos del pool.
+     */
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Devuelve el número de hilos del pool.
+     *
+     * @return Paralelismo del pool.
+     */
+    int getThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Prepara la ordenación para una nueva búsqueda con la misma política que
+     * {@link MoveOrdering#newSearch()}: la historia compartida se reduce a la
+     * mitad y las killers de los contextos se descartan la primera vez que se
+     * reutilizan en la nueva búsqueda, cuando también reciben {@code enabled}.
+     * Los contextos están repartidos entre los hilos del pool y no se pueden
+     * recorrer desde aquí.
+     *
+     * @param enabled {@code true} para usar killers e historia.
+     */
+    void newSearch(boolean enabled) {
+        orderingEnabled = enabled;
+        generation++;
+        for (int[] h : history) {
+            for (int c = 0; c < h.length; c++) {
+                h[c] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Pone a cero los contadores de nodos y repartos.
+     */
+    void resetStats() {
+        nodes.reset();
+        splits.reset();
+    }
+
+    /**
+     * Devuelve los nodos hoja evaluados desde el último {@link #resetStats()}.
+     *
+     * @return Número de nodos.
+     */
+    long getNodes() {
+        return nodes.sum();
+    }
+
+    /**
+     * Devuelve los repartos realizados desde el último {@link #resetStats()}.
+     *
+     * @return Número de repartos.
+     */
+    long getSplits() {
+        return splits.sum();
+    }
+
+    /**
+     * Devuelve el valor de la raíz de la última búsqueda, desde el punto de
+     * vista del jugador que busca.
+     *
+     * @return Valor de la raíz.
+     */
+    int getRootValue() {
+        return rootValue;
+    }
+
+    /**
+     * Busca la raíz a la profundidad indicada.
+     *
+     * @param board Tablero de la raíz (no se modifica).
+     * @param depth Profundidad de la iteración.
+     * @param alpha Límite inferior de la ventana.
+     * @param beta Límite superior de la ventana.
+     * @return Celda de la mejor jugada, o -1 si no se ha completado ninguna.
+     */
+    int searchRoot(HexBoard board, int depth, int alpha, int beta) {
+        this.myColor = board.getCurrentColor();
+        int cells = board.getSize() * board.getSize();
+        if (history[0].length != cells) {
+            history = new int[2][cells];
+        }
+        RootTask task = new RootTask(board, depth, alpha, beta);
+        pool.invoke(task);
+        rootValue = task.value;
+        return task.move;
+    }
+
+    /**
+     * Obtiene un contexto libre del hilo actual (o crea uno) con una copia del
+     * tablero indicado y la ordenación preparada para la búsqueda actual.
+     *
+     * @param from Tablero a copiar.
+     * @return Contexto listo para usar.
+     */
+    private Context acquire(HexBoard from) {
+        Context c = freeContexts.get().poll();
+        if (c == null || c.board.getSize() != from.getSize() || c.ordering.getHistory() != history) {
+            c = new Context(new HexBoard(from), history);
+        } else {
+            c.board.copyFrom(from);
+            c.bestMove = -1;
+            if (c.generation != generation) {
+                c.ordering.clearKillers();
+            }
+        }
+        c.ordering.setEnabled(orderingEnabled);
+        c.generation = generation;
+        return c;
+    }
+
+    /**
+     * Devuelve un contexto a la lista de libres del hilo actual.
+     *
+     * @param c Contexto que ya no se usa.
+     */
+    private void release(Context c) {
+        freeContexts.get().push(c);
+    }
+
+    /**
+     * Tarea que busca la raíz, para que todo el árbol se ejecute dentro del pool.
+     */
+    private class RootTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final HexBoard board;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private int value;
+        private int move = -1;
+
+        RootTask(HexBoard board, int depth, int alpha, int beta) {
+            this.board = board;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected void compute() {
+            Context c = acquire(board);
+            value = node(c, depth, alpha, beta, 0, null);
+            move = c.bestMove;
+            release(c);
+        }
+    }
+
+    /**
+     * Nodo negamax con poda alpha-beta y reparto YBWC de los hermanos menores.
+     *
+     * @param c Contexto (tablero y buffers) de la tarea actual.
+     * @param depth Profundidad restante.
+     * @param alpha Límite inferior de la ventana.
+     * @param beta Límite superior de la ventana.
+     * @param ply Distancia a la raíz del contexto (índice de sus buffers).
+     * @param parent Reparto del que cuelga esta tarea, o {@code null}.
+     * @return Valor del estado para el jugador que mueve.
+     */
+    private int node(Context c, int depth, int alpha, int beta, int ply, Split parent) {
+        if (aborted(parent)) {
+            return 0;
+        }
+        HexBoard board = c.board;
+        int color = board.getCurrentColor();
+        int sign = (color == myColor) ? 1 : -1;
+        if (board.isGameOver()) {
+            // En Hex siempre gana el jugador que acaba de mover.
+            return (board.getWinnerColor() == color) ? PlayerID.WIN_SCORE : -PlayerID.WIN_SCORE;
+        }
+        if (depth == 0) {
+            nodes.increment();
+            return sign * PlayerID.evaluate(c.evaluator, board, myColor);
+        }
+
+        long key = board.getKey();
+        long check = board.getCheckKey();
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+        int ttMove = -1;
+        boolean root = (parent == null && ply == 0);
+        long entry = transpositionTable.probe(key, check);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.moveOf(entry);
+            // En la raíz la tabla sólo aporta la jugada: hay que devolver una jugada.
+            if (!root && TranspositionTable.depthOf(entry) >= depth) {
+                int ttScore = TranspositionTable.scoreOf(entry);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT) {
+                    return ttScore;
+                } else if (bound == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, ttScore);
+                } else {
+                    beta = Math.min(beta, ttScore);
+                }
+                if (alpha >= beta) {
+                    return ttScore;
+                }
+            }
+        }
+
+        int[] moves = c.moves[ply];
+        int count = board.emptyCells(moves);
+        c.ordering.score(moves, count, ply, ttMove, color);
+
+        // Hermano mayor: siempre en el propio hilo.
+        int first = c.ordering.pickNext(moves, 0, count, ply);
+        board.play(first);
+        int value = -node(c, depth - 1, -beta, -alpha, ply + 1, parent);
+        board.undo(first);
+        int bestLocal = first;
+        alpha = Math.max(alpha, value);
+
+        if (alpha < beta && count > 1) {
+            if (depth >= MIN_SPLIT_DEPTH) {
+                // Hermanos menores en paralelo.
+                for (int i = 1; i < count; i++) {
+                    c.ordering.pickNext(moves, i, count, ply);
+                }
+                Split split = new Split(parent, alpha, beta, value, first);
+                List<BrotherTask> tasks = new ArrayList<>(count - 1);
+                for (int i = 1; i < count; i++) {
+                    tasks.add(new BrotherTask(split, c.board, moves[i], depth - 1));
+                }
+                splits.increment();
+                RecursiveAction.invokeAll(tasks);
+                value = split.best;
+                bestLocal = split.bestMove;
+                if (split.cutoff) {
+                    c.ordering.recordCutoff(bestLocal, ply, color, depth);
+                }
+            } else {
+                for (int i = 1; i < count; i++) {
+                    if (aborted(parent)) {
+                        break;
+                    }
+                    int mv = c.ordering.pickNext(moves, i, count, ply);
+                    board.play(mv);
+                    int tmp = -node(c, depth - 1, -beta, -alpha, ply + 1, parent);
+                    board.undo(mv);
+                    if (tmp > value) {
+                        value = tmp;
+                        bestLocal = mv;
+                    }
+                    alpha = Math.max(alpha, value);
+                    if (alpha >= beta) {
+                        c.ordering.recordCutoff(mv, ply, color, depth);
+                        break;
+                    }
+                }
+            }
+        } else if (alpha >= beta) {
+            c.ordering.recordCutoff(first, ply, color, depth);
+        }
+
+        if (root) {
+            c.bestMove = bestLocal;
+        }
+        if (!aborted(parent)) {
+            int bound;
+            if (value <= alphaOrig) {
+                bound = TranspositionTable.UPPER;
+            } else if (value >= betaOrig) {
+                bound = TranspositionTable.LOWER;
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+            transpositionTable.store(key, check, value, depth, bound, bestLocal);
+        }
+        return value;
+    }
+
+    /**
+     * Indica si la tarea actual debe abandonar: por timeout o porque algún
+     * reparto antecesor ya ha producido un corte.
+     *
+     * @param split Reparto del que cuelga la tarea, o {@code null}.
+     * @return {@code true} si el resultado ya no se va a usar.
+     */
+    private boolean aborted(Split split) {
+        if (owner.isTimedOut()) {
+            return true;
+        }
+        for (Split s = split; s != null; s = s.parent) {
+            if (s.cutoff) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estado compartido por los hermanos menores de un nodo repartido.
+     */
+    private static final class Split {
+
+        private final Split parent;
+        private final int beta;
+        private int alpha;
+        private int best;
+        private int bestMove;
+        private volatile boolean cutoff;
+
+        Split(Split parent, int alpha, int beta, int best, int bestMove) {
+            this.parent = parent;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.best = best;
+            this.bestMove = bestMove;
+        }
+
+        /**
+         * Devuelve el límite inferior actual de la ventana.
+         *
+         * @return Alpha compartido.
+         */
+        synchronized int alpha() {
+            return alpha;
+        }
+
+        /**
+         * Registra el resultado de un hermano.
+         *
+         * @param value Valor obtenido.
+         * @param move Jugada del hermano.
+         */
+        synchronized void report(int value, int move) {
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+            if (value > alpha) {
+                alpha = value;
+                if (alpha >= beta) {
+                    cutoff = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tarea que busca un hermano menor sobre su propia copia del tablero.
+     */
+    private final class BrotherTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Split split;
+        private final HexBoard board;
+        private final int move;
+        private final int depth;
+
+        BrotherTask(Split split, HexBoard board, int move, int depth) {
+            this.split = split;
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (aborted(split)) {
+                return;
+            }
+            // La copia se hace aquí, en el hilo que ejecuta la tarea, y no al crearla.
+            Context c = acquire(board);
+            c.board.play(move);
+            int value = -node(c, depth, -split.beta, -split.alpha(), 0, split);
+            release(c);
+            if (!aborted(split)) {
+                split.report(value, move);
+            }
+        }
+    }
+
+    /**
+     * Tablero y buffers propios de una tarea.
+     */
+    private static final class Context {
+
+        private final HexBoard board;
+        private final int[][] moves;
+        private final HexEvaluator evaluator;
+        private final MoveOrdering ordering;
+        private int bestMove = -1;
+        private int generation;
+
+        Context(HexBoard board, int[][] history) {
+            int cells = board.getSize() * board.getSize();
+            this.board = board;
+            this.moves = new int[cells + 1][cells];
+            this.evaluator = new HexEvaluator(board.getSize());
+            this.ordering = new MoveOrdering(cells, cells + 1, history);
+        }
+    }
+}
@@ -1,226 +1,382 @@
-// ------------------------------------------------------------------------
-// Segunda clase: ZobristHexState
-// ------------------------------------------------------------------------
-package edu.upc.epsevg.prop.hex.players;
-
-import edu.upc.epsevg.prop.hex.HexGameStatus;
-import java.awt.Point;
-import java.util.Random;
-
-/**
- * Clase que encapsula un estado de un juego de Hex junto con un valor hash 
- * calculado mediante Zobrist Hashing. Esto permite un acceso y comparación 
- * muy rápidos en la tabla de transposición.
- * 
- * <p>El enfoque Zobrist consiste en asignar un valor aleatorio a cada posición 
- * del tablero según su ocupante (vacío, color +1 o color -1), y luego mezclar 
- * todos esos valores mediante XOR para formar un hash único. Adicionalmente, 
- * se incluyen valores aleatorios diferentes para indicar si el turno es del 
- * jugador +1 o -1.</p>
- */
-public class ZobristHexState {
-
-    /**
-     * Tabla Zobrist que asocia a cada celda (x,y) y a un ocupante (0, 1, 2)
-     * un número aleatorio. Esto se usa para mezclar con XOR y formar el hash.
-     */
-    private static int[][][] zobrist;
-
-    /**
-     * Valor aleatorio que se mezcla en el hash si el jugador actual es +1.
-     */
-    private static int zobristPlayer1;
-
-    /**
-     * Valor aleatorio que se mezcla en el hash si el jugador actual es -1.
-     */
-    private static int zobristPlayer2;
-
-    /**
-     * Valor de hash actual para este estado.
-     */
-    private int myHash;
-
-    /**
-     * Indica si el valor de hash está actualizado o debe recalcularse.
-     */
-    private boolean hashValid;
-
-    /**
-     * Referencia interna al estado real del juego (tablero, turnos, etc.).
-     */
-    private HexGameStatus internalStatus;
-
-    /**
-     * Construye un estado Zobrist a partir de un {@link HexGameStatus}.
-     * 
-     * @param gs Estado de juego original, que será clonado internamente.
-     */
-    public ZobristHexState(HexGameStatus gs) {
-        int size = gs.getSize();
-        initZobrist(size);
-
-        // Se clona el estado interno para mantener la inmutabilidad externa.
-        this.internalStatus = new HexGameStatus(gs);
-        this.hashValid = false;
-    }
-
-    /**
-     * Constructor de copia. Crea un nuevo estado basado en otro {@code ZobristHexState}.
-     * 
-     * @param other Estado del cual se copiará.
-     */
-    public ZobristHexState(ZobristHexState other) {
-        this.internalStatus = new HexGameStatus(other.internalStatus);
-        this.myHash = other.myHash;
-        this.hashValid = other.hashValid;
-    }
-
-    /**
-     * Inicializa los valores Zobrist si todavía no se han generado para 
-     * un tablero de tamaño {@code n} x {@code n}.
-     * 
-     * @param n Tamaño del tablero.
-     */
-    private static void initZobrist(int n) {
-        if (zobrist != null && zobrist.length == n) {
-            // Si ya estaba inicializado para este tamaño, no se hace nada.
-            return;
-        }
-        zobrist = new int[n][n][3];
-        Random rnd = new Random();
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                for (int k = 0; k < 3; k++) {
-                    zobrist[i][j][k] = rnd.nextInt();
-                }
-            }
-        }
-        // Valores especiales para indicar turno de +1 o -1.
-        zobristPlayer1 = rnd.nextInt();
-        zobristPlayer2 = rnd.nextInt();
-    }
-
-    /**
-     * Devuelve el hashCode de este estado (se recalcula si no está marcado como válido).
-     * 
-     * @return Un valor entero que representa el hash Zobrist para este estado.
-     */
-    @Override
-    public int hashCode() {
-        if (!hashValid) {
-            computeHash();
-        }
-        return myHash;
-    }
-
-    /**
-     * Determina si dos estados son iguales comparando sus valores de hash.
-     * 
-     * <p>En teoría puede haber colisiones, pero en la práctica son muy poco probables.</p>
-     * 
-     * @param o Objeto a comparar.
-     * @return {@code true} si el hash es igual; {@code false} en caso contrario.
-     */
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null) return false;
-        if (!(o instanceof ZobristHexState)) return false;
-        ZobristHexState z = (ZobristHexState) o;
-        return this.hashCode() == z.hashCode();
-    }
-
-    /**
-     * Recalcula el hash mezclando (mediante XOR) los valores aleatorios asociados 
-     * a la ocupación de cada celda y el turno del jugador actual.
-     */
-    private void computeHash() {
-        int size = internalStatus.getSize();
-        int tmpHash = 0;
-
-        // Mezclar el jugador actual (1 o -1).
-        if (internalStatus.getCurrentPlayerColor() == 1) {
-            tmpHash ^= zobristPlayer1;
-        } else {
-            tmpHash ^= zobristPlayer2;
-        }
-
-        // Mezclar cada celda según su ocupante: 0 = vacío, 1 = +1, 2 = -1.
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int occupant = internalStatus.getPos(i, j); // 0, +1 o -1
-                int index = (occupant == 1) ? 1 : (occupant == -1) ? 2 : 0;
-                tmpHash ^= zobrist[i][j][index];
-            }
-        }
-        myHash = tmpHash;
-        hashValid = true;
-    }
-
-    /**
-     * Realiza un movimiento en la posición indicada, colocando la piedra 
-     * del jugador actual, y fuerza el recálculo futuro del hash.
-     * 
-     * @param p Coordenada donde colocar la piedra.
-     */
-    public void placeStone(Point p) {
-        internalStatus.placeStone(p);
-        hashValid = false; // Se invalida el hash para recalcularlo en la siguiente ocasión.
-    }
-
-    /**
-     * Indica si la partida ha finalizado.
-     * 
-     * @return {@code true} si el estado representa un juego terminado; de lo contrario, {@code false}.
-     */
-    public boolean isGameOver() {
-        return internalStatus.isGameOver();
-    }
-
-    /**
-     * Obtiene el color del ganador en caso de que el juego haya terminado.
-     * 
-     * @return +1 si ganó el primer jugador, -1 si ganó el segundo, 
-     *         0 si no hay ganador (raro en Hex).
-     */
-    public int getWinnerColor() {
-        if (!internalStatus.isGameOver()) {
-            return 0;
-        }
-        return internalStatus.getCurrentPlayerColor();
-    }
-
-    /**
-     * Devuelve el estado interno de {@link HexGameStatus}, útil para obtener 
-     * información adicional como el tamaño del tablero o generar movimientos.
-     * 
-     * @return El objeto {@link HexGameStatus} interno.
-     */
-    public HexGameStatus getInternalStatus() {
-        return internalStatus;
-    }
-
-    /**
-     * Devuelve el tamaño del tablero.
-     * 
-     * @return Un entero con el número de filas y columnas.
-     */
-    public int getSize() {
-        return internalStatus.getSize();
-    }
-
-    /**
-     * Devuelve el ocupante de la celda en la posición (x, y).
-     * 
-     * @param x Fila de la celda.
-     * @param y Columna de la celda.
-     * @return 1 si la celda está ocupada por el jugador +1, 
-     *        -1 si la ocupa el jugador -1, 
-     *         0 si está vacía.
-     */
-    public int getPos(int x, int y) {
-        return internalStatus.getPos(x, y);
-    }
+// ------------------------------------------------------------------------
+// Segunda clase: ZobristHexState
+// ------------------------------------------------------------------------
+package edu.upc.epsevg.prop.hex.players;
+
+import edu.upc.epsevg.prop.hex.HexGameStatus;
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Clase que encapsula un estado de un juego de Hex junto con un valor hash 
+ * calculado mediante Zobrist Hashing. Esto permite un acceso y comparación 
+ * muy rápidos en la tabla de transposición.
+ * 
+ * <p>El enfoque Zobrist consiste en asignar un valor aleatorio a cada posición 
+ * del tablero según su ocupante (vacío, color +1 o color -1), y luego mezclar 
+ * todos esos valores mediante XOR para formar un hash único. Adicionalmente, 
+ * se incluyen valores aleatorios diferentes para indicar si el turno es del 
+ * jugador +1 o -1.</p>
+ * 
+ * <p>Los valores salen de un generador con semilla fija (que depende sólo del 
+ * tamaño del tablero), de modo que la clave de una posición es la misma en 
+ * todas las ejecuciones y puede guardarse en un fichero, como hace 
+ * {@link OpeningBook}.</p>
+ */
+public class ZobristHexState {
+
+    /**
+     * Semilla de las tablas Zobrist. Cambiarla invalida los libros de 
+     * aperturas generados.
+     */
+    private static final long ZOBRIST_SEED = 0x4865786F72636973L;
+
+    /**
+     * Tablas Zobrist del último tamaño de tablero usado. Se construyen 
+     * completas antes de publicarse en este campo {@code volatile}, de modo 
+     * que un hilo que las vea las ve siempre llenas aunque otro hilo las esté 
+     * creando a la vez (por ejemplo, los ayudantes de Lazy SMP en el primer 
+     * movimiento).
+     */
+    private static volatile Tables tables;
+
+    /**
+     * Clave Zobrist de 64 bits de este estado. Se calcula una única vez al
+     * construir el estado y después se actualiza de forma incremental.
+     */
+    private long myHash;
+
+    /**
+     * Clave de verificación de 64 bits, calculada con tablas independientes.
+     * Dos estados distintos con la misma {@link #myHash} casi nunca comparten 
+     * también esta clave.
+     */
+    private long myCheck;
+
+    /**
+     * Referencia interna al estado real del juego (tablero, turnos, etc.).
+     */
+    private HexGameStatus internalStatus;
+
+    /**
+     * Construye un estado Zobrist a partir de un {@link HexGameStatus}.
+     * 
+     * @param gs Estado de juego original, que será clonado internamente.
+     */
+    public ZobristHexState(HexGameStatus gs) {
+        int size = gs.getSize();
+        initZobrist(size);
+
+        // Se clona el estado interno para mantener la inmutabilidad externa.
+        this.internalStatus = new HexGameStatus(gs);
+        computeHash();
+    }
+
+    /**
+     * Constructor de copia. Crea un nuevo estado basado en otro {@code ZobristHexState}.
+     * 
+     * @param other Estado del cual se copiará.
+     */
+    public ZobristHexState(ZobristHexState other) {
+        this.internalStatus = new HexGameStatus(other.internalStatus);
+        this.myHash = other.myHash;
+        this.myCheck = other.myCheck;
+    }
+
+    /**
+     * Inicializa los valores Zobrist si todavía no se han generado para 
+     * un tablero de tamaño {@code n} x {@code n}. Como la semilla es fija, 
+     * volver a un tamaño ya usado genera exactamente los mismos valores.
+     * 
+     * @param n Tamaño del tablero.
+     */
+    private static void initZobrist(int n) {
+        Tables t = tables;
+        if (t != null && t.zobrist.length == n) {
+            // Si ya estaba inicializado para este tamaño, no se hace nada.
+            return;
+        }
+        // Si dos hilos llegan a la vez, los dos generan los mismos valores.
+        tables = new Tables(n);
+    }
+
+    /**
+     * Valores Zobrist de un tamaño de tablero. Es inmutable una vez 
+     * construido y se publica entero a través de {@link #tables}.
+     */
+    private static final class Tables {
+        /**
+         * Tabla Zobrist que asocia a cada celda (x,y) y a un ocupante (0, 1, 2)
+         * un número aleatorio de 64 bits. Esto se usa para mezclar con XOR y formar el hash.
+         */
+        final long[][][] zobrist;
+
+        /**
+         * Segunda tabla Zobrist, independiente de {@link #zobrist}, con la que se 
+         * forma una clave de verificación. Juntas forman una clave de 128 bits.
+         */
+        final long[][][] zobristCheck;
+
+        /**
+         * Valor aleatorio que se mezcla en el hash si el jugador actual es +1.
+         */
+        final long zobristPlayer1;
+
+        /**
+         * Valor aleatorio que se mezcla en el hash si el jugador actual es -1.
+         */
+        final long zobristPlayer2;
+
+        /**
+         * Valor de verificación que se mezcla si el jugador actual es +1.
+         */
+        final long zobristCheckPlayer1;
+
+        /**
+         * Valor de verificación que se mezcla si el jugador actual es -1.
+         */
+        final long zobristCheckPlayer2;
+
+        /**
+         * Genera los valores de un tablero de tamaño {@code n} x {@code n}.
+         * 
+         * @param n Tamaño del tablero.
+         */
+        Tables(int n) {
+            zobrist = new long[n][n][3];
+            zobristCheck = new long[n][n][3];
+            Random rnd = new Random(ZOBRIST_SEED + n);
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    for (int k = 0; k < 3; k++) {
+                        zobrist[i][j][k] = rnd.nextLong();
+                        zobristCheck[i][j][k] = rnd.nextLong();
+                    }
+                }
+            }
+            // Valores especiales para indicar turno de +1 o -1.
+            zobristPlayer1 = rnd.nextLong();
+            zobristPlayer2 = rnd.nextLong();
+            zobristCheckPlayer1 = rnd.nextLong();
+            zobristCheckPlayer2 = rnd.nextLong();
+        }
+    }
+
+    /**
+     * Devuelve el hashCode de este estado, obtenido plegando la clave de 64 bits.
+     * 
+     * @return Un valor entero que representa el hash Zobrist para este estado.
+     */
+    @Override
+    public int hashCode() {
+        return (int) (myHash ^ (myHash >>> 32));
+    }
+
+    /**
+     * Devuelve la clave Zobrist completa de 64 bits de este estado.
+     * 
+     * @return La clave Zobrist actual.
+     */
+    public long getKey() {
+        return myHash;
+    }
+
+    /**
+     * Devuelve la clave de verificación de 64 bits de este estado. La tabla de 
+     * transposición la guarda junto a {@link #getKey()} para detectar colisiones.
+     * 
+     * @return La clave de verificación actual.
+     */
+    public long getCheckKey() {
+        return myCheck;
+    }
+
+    /**
+     * Determina si dos estados son iguales comparando sus claves de 128 bits 
+     * (clave Zobrist y clave de verificación).
+     * 
+     * <p>Con 128 bits independientes la probabilidad de colisión es despreciable.</p>
+     * 
+     * @param o Objeto a comparar.
+     * @return {@code true} si ambas claves coinciden; {@code false} en caso contrario.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (!(o instanceof ZobristHexState)) return false;
+        ZobristHexState z = (ZobristHexState) o;
+        return this.myHash == z.myHash && this.myCheck == z.myCheck;
+    }
+
+    /**
+     * Calcula el hash mezclando (mediante XOR) los valores aleatorios asociados 
+     * a la ocupación de cada celda y el turno del jugador actual. Recorre todo
+     * el tablero, por lo que sólo se usa al construir el estado.
+     */
+    private void computeHash() {
+        Tables t = tables;
+        int size = internalStatus.getSize();
+        long tmpHash = 0;
+        long tmpCheck = 0;
+
+        // Mezclar el jugador actual (1 o -1).
+        if (internalStatus.getCurrentPlayerColor() == 1) {
+            tmpHash ^= t.zobristPlayer1;
+            tmpCheck ^= t.zobristCheckPlayer1;
+        } else {
+            tmpHash ^= t.zobristPlayer2;
+            tmpCheck ^= t.zobristCheckPlayer2;
+        }
+
+        // Mezclar cada celda según su ocupante: 0 = vacío, 1 = +1, 2 = -1.
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int occupant = internalStatus.getPos(i, j); // 0, +1 o -1
+                int index = (occupant == 1) ? 1 : (occupant == -1) ? 2 : 0;
+                tmpHash ^= t.zobrist[i][j][index];
+                tmpCheck ^= t.zobristCheck[i][j][index];
+            }
+        }
+        myHash = tmpHash;
+        myCheck = tmpCheck;
+    }
+
+    /**
+     * Calcula la clave Zobrist y la de verificación del estado girado 180 
+     * grados: la celda (x, y) pasa a (n-1-x, n-1-y). El giro conserva los 
+     * bordes que une cada jugador, así que las dos posiciones son 
+     * equivalentes y tienen la misma mejor jugada (girada).
+     * 
+     * @return Array con la clave Zobrist y la de verificación del estado girado.
+     */
+    public long[] rotatedKeys() {
+        Tables t = tables;
+        int size = internalStatus.getSize();
+        long tmpHash = (internalStatus.getCurrentPlayerColor() == 1) ? t.zobristPlayer1 : t.zobristPlayer2;
+        long tmpCheck = (internalStatus.getCurrentPlayerColor() == 1) ? t.zobristCheckPlayer1 : t.zobristCheckPlayer2;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int occupant = internalStatus.getPos(size - 1 - i, size - 1 - j);
+                int index = (occupant == 1) ? 1 : (occupant == -1) ? 2 : 0;
+                tmpHash ^= t.zobrist[i][j][index];
+                tmpCheck ^= t.zobristCheck[i][j][index];
+            }
+        }
+        return new long[]{tmpHash, tmpCheck};
+    }
+
+    /**
+     * Devuelve la contribución a la clave de colocar una piedra de {@code color}
+     * en la celda (x, y) y pasar el turno: sale el valor de la celda vacía, 
+     * entra el del ocupante y se intercambian los valores de turno.
+     * 
+     * @param x Fila de la celda.
+     * @param y Columna de la celda.
+     * @param color Color de la piedra (+1 o -1).
+     * @return Valor que debe mezclarse con XOR en la clave.
+     */
+    static long stoneDelta(int x, int y, int color) {
+        Tables t = tables;
+        int index = (color == 1) ? 1 : 2;
+        return t.zobrist[x][y][0] ^ t.zobrist[x][y][index] ^ t.zobristPlayer1 ^ t.zobristPlayer2;
+    }
+
+    /**
+     * Equivalente a {@link #stoneDelta} para la clave de verificación.
+     * 
+     * @param x Fila de la celda.
+     * @param y Columna de la celda.
+     * @param color Color de la piedra (+1 o -1).
+     * @return Valor que debe mezclarse con XOR en la clave de verificación.
+     */
+    static long checkDelta(int x, int y, int color) {
+        Tables t = tables;
+        int index = (color == 1) ? 1 : 2;
+        return t.zobristCheck[x][y][0] ^ t.zobristCheck[x][y][index] ^ t.zobristCheckPlayer1 ^ t.zobristCheckPlayer2;
+    }
+
+    /**
+     * Realiza un movimiento en la posición indicada, colocando la piedra 
+     * del jugador actual, y actualiza las claves en O(1) mediante XOR.
+     * 
+     * @param p Coordenada donde colocar la piedra.
+     */
+    public void placeStone(Point p) {
+        int color = internalStatus.getCurrentPlayerColor();
+        internalStatus.placeStone(p);
+        myHash ^= stoneDelta(p.x, p.y, color);
+        myCheck ^= checkDelta(p.x, p.y, color);
+    }
+
+    /**
+     * Deshace en O(1) el efecto sobre las claves de un {@link #placeStone} previo.
+     * 
+     * <p>Como XOR es su propia inversa, basta con volver a mezclar la misma 
+     * contribución. {@link HexGameStatus} no permite retirar piedras, así que 
+     * el tablero interno no se modifica: quien recorre el árbol con 
+     * hacer/deshacer debe restaurar el tablero por su cuenta.</p>
+     * 
+     * @param p Coordenada donde se colocó la piedra.
+     * @param color Color del jugador que la colocó (+1 o -1).
+     */
+    public void undoStone(Point p, int color) {
+        myHash ^= stoneDelta(p.x, p.y, color);
+        myCheck ^= checkDelta(p.x, p.y, color);
+    }
+
+    /**
+     * Indica si la partida ha finalizado.
+     * 
+     * @return {@code true} si el estado representa un juego terminado; de lo contrario, {@code false}.
+     */
+    public boolean isGameOver() {
+        return internalStatus.isGameOver();
+    }
+
+    /**
+     * Obtiene el color del ganador en caso de que el juego haya terminado.
+     * 
+     * @return +1 si ganó el primer jugador, -1 si ganó el segundo, 
+     *         0 si no hay ganador (raro en Hex).
+     */
+    public int getWinnerColor() {
+        if (!internalStatus.isGameOver()) {
+            return 0;
+        }
+        return internalStatus.getCurrentPlayerColor();
+    }
+
+    /**
+     * Devuelve el estado interno de {@link HexGameStatus}, útil para obtener 
+     * información adicional como el tamaño del tablero o generar movimientos.
+     * 
+     * @return El objeto {@link HexGameStatus} interno.
+     */
+    public HexGameStatus getInternalStatus() {
+        return internalStatus;
+    }
+
+    /**
+     * Devuelve el tamaño del tablero.
+     * 
+     * @return Un entero con el número de filas y columnas.
+     */
+    public int getSize() {
+        return internalStatus.getSize();
+    }
+
+    /**
+     * Devuelve el ocupante de la celda en la posición (x, y).
+     * 
+     * @param x Fila de la celda.
+     * @param y Columna de la celda.
+     * @return 1 si la celda está ocupada por el jugador +1, 
+     *        -1 si la ocupa el jugador -1, 
+     *         0 si está vacía.
+     */
+    public int getPos(int x, int y) {
+        return internalStatus.getPos(x, y);
+    }
 }
\ No newline at end of file